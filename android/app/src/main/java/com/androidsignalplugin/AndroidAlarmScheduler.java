@@ -0,0 +1,92 @@
+package com.androidsignalplugin;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+
+import com.androidsignalplugin.core.AlarmScheduler;
+import com.androidsignalplugin.core.TimelineEntry;
+
+/**
+ * AlarmManager-backed scheduler. The trigger slot is a single PendingIntent to
+ * SignalAlarmReceiver with a fixed request code, so re-arming replaces it.
+ */
+public class AndroidAlarmScheduler implements AlarmScheduler {
+    // Single request code shared by every chained alarm
+    private static final int NEXT_ALARM_REQUEST_CODE = 1;
+
+    // Per-signal request codes used before the chained scheduler
+    private static final int LEGACY_FIRST_ID = 1000;
+    private static final int LEGACY_LAST_ID = 1099;
+    private static final String PREFS_NAME = "signal_schedule_engine";
+    private static final String KEY_LEGACY_CLEARED = "legacyAlarmsCleared";
+
+    private final Context context;
+    private final AlarmManager alarmManager;
+
+    public AndroidAlarmScheduler(Context context) {
+        this.context = context;
+        this.alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        clearLegacyAlarmsOnce();
+    }
+
+    @Override
+    public void setExact(int slot, long triggerAtMillis, TimelineEntry entry) {
+        PendingIntent pendingIntent = buildPendingIntent(entry);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent);
+        } else {
+            alarmManager.setExact(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent);
+        }
+    }
+
+    @Override
+    public void cancel(int slot) {
+        alarmManager.cancel(buildPendingIntent(null));
+    }
+
+    private void clearLegacyAlarmsOnce() {
+        // Older builds armed one PendingIntent per signal; sweep them a single time
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (prefs.getBoolean(KEY_LEGACY_CLEARED, false)) {
+            return;
+        }
+
+        for (int id = LEGACY_FIRST_ID; id <= LEGACY_LAST_ID; id++) {
+            Intent intent = new Intent(context, SignalAlarmReceiver.class);
+            PendingIntent pendingIntent = PendingIntent.getBroadcast(
+                context,
+                id,
+                intent,
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
+            );
+            if (pendingIntent != null) {
+                alarmManager.cancel(pendingIntent);
+                pendingIntent.cancel();
+            }
+        }
+        prefs.edit().putBoolean(KEY_LEGACY_CLEARED, true).apply();
+    }
+
+    private PendingIntent buildPendingIntent(TimelineEntry entry) {
+        Intent intent = new Intent(context, SignalAlarmReceiver.class);
+        intent.setAction(SignalScheduleEngine.ACTION_FIRE_NEXT);
+        if (entry != null) {
+            // Lets the receiver still fire this entry if the process was recreated
+            intent.putExtra("signalMeta", entry.record.packMeta());
+            intent.putExtra("signalAt", entry.record.signalAtMillis);
+            intent.putExtra("alarmId", entry.id);
+            intent.putExtra("scheduledAt", entry.triggerAtMillis);
+        }
+
+        return PendingIntent.getBroadcast(
+            context,
+            NEXT_ALARM_REQUEST_CODE,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+}
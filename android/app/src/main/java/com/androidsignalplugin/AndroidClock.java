@@ -0,0 +1,20 @@
+package com.androidsignalplugin;
+
+import android.os.SystemClock;
+
+import com.androidsignalplugin.core.Clock;
+
+/**
+ * The device clocks.
+ */
+public class AndroidClock implements Clock {
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long elapsedRealtime() {
+        return SystemClock.elapsedRealtime();
+    }
+}
@@ -2,21 +2,35 @@
 package com.androidsignalplugin;
 
 import android.app.AlarmManager;
-import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
 import android.provider.Settings;
 import android.net.Uri;
+import android.util.Base64;
 import androidx.core.app.NotificationManagerCompat;
 
+import com.androidsignalplugin.core.Clock;
+import com.androidsignalplugin.core.SignalListParser;
+import com.androidsignalplugin.core.SignalRecord;
+import com.androidsignalplugin.core.SignalTimePlanner;
+import com.androidsignalplugin.core.TimelineEntry;
+import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
 
-import java.util.Calendar;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @CapacitorPlugin(name = "AndroidSignalPlugin")
 public class AndroidSignalPlugin extends Plugin {
@@ -25,12 +39,44 @@ public class AndroidSignalPlugin extends Plugin {
     private Context context;
     private SignalForegroundService foregroundService;
     private SignalAudioManager audioManager;
+    private SignalScheduleEngine scheduleEngine;
+    private Clock clock;
+    private final SignalTimePlanner timePlanner = SignalTimePlanner.getInstance();
+    private final SignalEventBus.Listener eventListener = this::notifyListeners;
+    private final ExecutorService scheduleExecutor = Executors.newSingleThreadExecutor();
+
+    // Same id range the web layer uses for its batch of native alarms
+    private static final int IMPORT_FIRST_ID = 1000;
+
+    // Private copies of tones picked in the web layer
+    private static final String ALERT_TONE_DIR = "alert_tones";
 
     @Override
     public void load() {
         context = getContext();
         alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        audioManager = new SignalAudioManager(context);
+        audioManager = SignalAudioManager.acquire(context);
+        clock = SignalRuntime.clock();
+        scheduleEngine = SignalScheduleEngine.getInstance(context);
+        SignalEventBus.getInstance().attach(eventListener);
+    }
+
+    @Override
+    protected void handleOnResume() {
+        // Replays anything emitted while the WebView was in the background
+        SignalEventBus.getInstance().attach(eventListener);
+    }
+
+    @Override
+    protected void handleOnPause() {
+        SignalEventBus.getInstance().detach(eventListener);
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        SignalEventBus.getInstance().detach(eventListener);
+        scheduleExecutor.shutdown();
+        audioManager.release();
     }
 
     @PluginMethod
@@ -39,52 +85,14 @@ public class AndroidSignalPlugin extends Plugin {
             int id = call.getInt("id", 0);
             String timestamp = call.getString("timestamp");
             int antidelaySeconds = call.getInt("antidelaySeconds", 15);
-            String signalData = call.getString("signalData");
-
-            // Parse timestamp (HH:MM format)
-            String[] timeParts = timestamp.split(":");
-            int hours = Integer.parseInt(timeParts[0]);
-            int minutes = Integer.parseInt(timeParts[1]);
-
-            // Calculate alarm time
-            Calendar calendar = Calendar.getInstance();
-            calendar.set(Calendar.HOUR_OF_DAY, hours);
-            calendar.set(Calendar.MINUTE, minutes);
-            calendar.set(Calendar.SECOND, 0);
-            calendar.set(Calendar.MILLISECOND, 0);
-
-            // Subtract antidelay
-            calendar.add(Calendar.SECOND, -antidelaySeconds);
-
-            // Create intent for alarm receiver
-            Intent intent = new Intent(context, SignalAlarmReceiver.class);
-            intent.putExtra("signalData", signalData);
-            intent.putExtra("alarmId", id);
-
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                context, 
-                id, 
-                intent, 
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
+            long signalAt = nextSignalAt(timestamp, clock.currentTimeMillis());
+            long triggerAt = signalAt - antidelaySeconds * 1000L;
 
-            // Schedule exact alarm
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(
-                    AlarmManager.RTC_WAKEUP,
-                    calendar.getTimeInMillis(),
-                    pendingIntent
-                );
-            } else {
-                alarmManager.setExact(
-                    AlarmManager.RTC_WAKEUP,
-                    calendar.getTimeInMillis(),
-                    pendingIntent
-                );
-            }
+            scheduleEngine.schedule(id, triggerAt, buildRecord(call.getData(), signalAt));
 
             JSObject result = new JSObject();
             result.put("success", true);
+            result.put("triggerAt", triggerAt);
             call.resolve(result);
 
         } catch (Exception e) {
@@ -92,23 +100,183 @@ public class AndroidSignalPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void scheduleAlarms(PluginCall call) {
+        JSArray alarms = call.getArray("alarms");
+        if (alarms == null) {
+            call.reject("Failed to schedule alarms: missing alarms array");
+            return;
+        }
+        int defaultAntidelaySeconds = call.getInt("antidelaySeconds", 15);
+
+        // Plan and arm the whole list off the bridge thread, then resolve once
+        scheduleExecutor.execute(() -> {
+            try {
+                JSArray results = new JSArray();
+                List<TimelineEntry> entries = new ArrayList<>();
+                int scheduled = 0;
+                int failed = 0;
+                long now = clock.currentTimeMillis();
+
+                for (int i = 0; i < alarms.length(); i++) {
+                    JSObject item = new JSObject();
+                    try {
+                        JSONObject alarm = alarms.getJSONObject(i);
+                        int id = alarm.getInt("id");
+                        item.put("id", id);
+
+                        int antidelaySeconds = alarm.optInt("antidelaySeconds", defaultAntidelaySeconds);
+                        long signalAt = nextSignalAt(alarm.getString("timestamp"), now);
+                        long triggerAt = signalAt - antidelaySeconds * 1000L;
+                        entries.add(new TimelineEntry(id, triggerAt, buildRecord(alarm, signalAt)));
+                        item.put("success", true);
+                        item.put("triggerAt", triggerAt);
+                        scheduled++;
+                    } catch (Exception e) {
+                        item.put("success", false);
+                        item.put("error", e.getMessage());
+                        failed++;
+                    }
+                    results.put(item);
+                }
+
+                // One AlarmManager call for the whole list
+                scheduleEngine.scheduleAll(entries);
+
+                JSObject result = new JSObject();
+                result.put("success", failed == 0);
+                result.put("scheduled", scheduled);
+                result.put("failed", failed);
+                result.put("results", results);
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to schedule alarms: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void importSignals(PluginCall call) {
+        String text = call.getString("text");
+        if (text == null) {
+            call.reject("Failed to import signals: missing text");
+            return;
+        }
+        int antidelaySeconds = call.getInt("antidelaySeconds", 15);
+        boolean replace = call.getBoolean("replace", true);
+
+        // Parse, plan and arm the pasted list without a JSON round trip per signal
+        scheduleExecutor.execute(() -> {
+            try {
+                JSArray signals = new JSArray();
+                JSArray errors = new JSArray();
+                List<TimelineEntry> entries = new ArrayList<>();
+                int[] counts = new int[2]; // parsed, duplicates
+                long now = clock.currentTimeMillis();
+                // Appended imports continue above what is pending instead of overwriting it
+                int firstId = replace ? IMPORT_FIRST_ID : scheduleEngine.nextFreeId(IMPORT_FIRST_ID);
+
+                SignalSymbolTable symbols = SignalSymbolTable.getInstance(context.getFilesDir());
+                new SignalListParser(symbols).parse(text, new SignalListParser.Sink() {
+                    @Override
+                    public void onSignal(int line, int timeframeId, int assetId, int hours, int minutes, int direction) {
+                        int id = firstId + counts[0]++;
+                        long signalAt = timePlanner.nextSignalAt(hours, minutes, now);
+                        long triggerAt = signalAt - antidelaySeconds * 1000L;
+                        SignalRecord record = new SignalRecord(assetId, timeframeId, direction, signalAt);
+                        entries.add(new TimelineEntry(id, triggerAt, record));
+
+                        JSObject signal = new JSObject();
+                        signal.put("line", line);
+                        signal.put("id", id);
+                        signal.put("triggerAt", triggerAt);
+                        signals.put(signal);
+                    }
+
+                    @Override
+                    public void onDuplicate(int line) {
+                        counts[1]++;
+                    }
+
+                    @Override
+                    public void onError(int line, int reason) {
+                        JSObject error = new JSObject();
+                        error.put("line", line);
+                        error.put("reason", SignalListParser.describeError(reason));
+                        errors.put(error);
+                    }
+                });
+
+                if (replace) {
+                    scheduleEngine.cancelAll();
+                }
+                scheduleEngine.scheduleAll(entries);
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                result.put("parsed", counts[0]);
+                result.put("scheduled", entries.size());
+                result.put("duplicates", counts[1]);
+                result.put("errors", errors);
+                result.put("signals", signals);
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to import signals: " + e.getMessage());
+            }
+        });
+    }
+
+    private SignalRecord buildRecord(JSONObject alarm, long signalAtMillis) {
+        SignalSymbolTable symbols = SignalSymbolTable.getInstance(context.getFilesDir());
+        if (alarm.has("asset")) {
+            return SignalRecord.of(
+                symbols,
+                alarm.optString("asset", null),
+                alarm.optString("timeframe", null),
+                alarm.optString("direction", null),
+                signalAtMillis
+            );
+        }
+        // Older callers only send the JSON-encoded signal
+        String signalData = alarm.optString("signalData", null);
+        JSONObject signal = null;
+        try {
+            signal = signalData != null ? new JSONObject(signalData) : null;
+        } catch (JSONException e) {
+            // Unreadable signalData: keep the alarm, just without details
+        }
+        return SignalRecord.of(
+            symbols,
+            signal != null ? signal.optString("asset", null) : null,
+            signal != null ? signal.optString("timeframe", null) : null,
+            signal != null ? signal.optString("direction", null) : null,
+            signalAtMillis
+        );
+    }
+
+    private long nextSignalAt(String timestamp, long nowMillis) {
+        // Parse timestamp (HH:MM format)
+        String[] timeParts = timestamp.split(":");
+        int hours = Integer.parseInt(timeParts[0]);
+        int minutes = Integer.parseInt(timeParts[1]);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            throw new IllegalArgumentException("Invalid HH:MM time: " + timestamp);
+        }
+        // Times that already passed today roll over to tomorrow
+        return timePlanner.nextSignalAt(hours, minutes, nowMillis);
+    }
+
     @PluginMethod
     public void cancelAlarm(PluginCall call) {
         try {
             int id = call.getInt("id", 0);
-            
-            Intent intent = new Intent(context, SignalAlarmReceiver.class);
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                context, 
-                id, 
-                intent, 
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            alarmManager.cancel(pendingIntent);
+            boolean cancelled = scheduleEngine.cancel(id);
 
             JSObject result = new JSObject();
             result.put("success", true);
+            result.put("cancelled", cancelled ? 1 : 0);
             call.resolve(result);
 
         } catch (Exception e) {
@@ -119,20 +287,12 @@ public class AndroidSignalPlugin extends Plugin {
     @PluginMethod
     public void cancelAllAlarms(PluginCall call) {
         try {
-            // Cancel alarms with IDs 1000-1099 (matching our notification range)
-            for (int i = 1000; i < 1100; i++) {
-                Intent intent = new Intent(context, SignalAlarmReceiver.class);
-                PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                    context, 
-                    i, 
-                    intent, 
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-                );
-                alarmManager.cancel(pendingIntent);
-            }
+            // The timeline is the registry of live alarms, whatever their IDs
+            int cancelled = scheduleEngine.cancelAll();
 
             JSObject result = new JSObject();
             result.put("success", true);
+            result.put("cancelled", cancelled);
             call.resolve(result);
 
         } catch (Exception e) {
@@ -198,6 +358,148 @@ public class AndroidSignalPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void preloadAudio(PluginCall call) {
+        String audioPath = call.getString("audioPath");
+        if (audioPath == null) {
+            call.reject("Failed to preload audio: missing audioPath");
+            return;
+        }
+
+        // Decoding is blocking, keep it off the bridge thread
+        scheduleExecutor.execute(() -> {
+            try {
+                audioManager.preloadAudio(audioPath);
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to preload audio: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void preloadTones(PluginCall call) {
+        JSArray audioPaths = call.getArray("audioPaths");
+        if (audioPaths == null) {
+            call.reject("Failed to preload tones: missing audioPaths array");
+            return;
+        }
+        Integer maxCacheBytes = call.getInt("maxCacheBytes");
+
+        scheduleExecutor.execute(() -> {
+            try {
+                DecodedSoundCache cache = DecodedSoundCache.getInstance();
+                if (maxCacheBytes != null) {
+                    cache.setMaxBytes(maxCacheBytes);
+                }
+
+                List<String> paths = new ArrayList<>();
+                for (int i = 0; i < audioPaths.length(); i++) {
+                    paths.add(audioPaths.optString(i));
+                }
+                int loaded = audioManager.preloadTones(paths);
+
+                JSObject result = new JSObject();
+                result.put("success", loaded == paths.size());
+                result.put("loaded", loaded);
+                result.put("cachedTones", cache.size());
+                result.put("cachedBytes", cache.getCurrentBytes());
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to preload tones: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void saveAlertTone(PluginCall call) {
+        String data = call.getString("data");
+        if (data == null) {
+            call.reject("Failed to save alert tone: missing data");
+            return;
+        }
+
+        // The WebView's blob URLs cannot be opened natively, so keep a file to decode
+        scheduleExecutor.execute(() -> {
+            try {
+                byte[] bytes = Base64.decode(data, Base64.DEFAULT);
+                File directory = new File(context.getFilesDir(), ALERT_TONE_DIR);
+                File[] previous = directory.listFiles();
+                if (previous != null) {
+                    for (File file : previous) {
+                        file.delete();
+                    }
+                } else {
+                    directory.mkdirs();
+                }
+                // A new name per tone, so the decoded-tone cache never serves the old one
+                File tone = new File(directory, "tone_" + clock.currentTimeMillis());
+                try (FileOutputStream out = new FileOutputStream(tone)) {
+                    out.write(bytes);
+                }
+
+                JSObject result = new JSObject();
+                result.put("success", true);
+                result.put("audioPath", Uri.fromFile(tone).toString());
+                call.resolve(result);
+
+            } catch (Exception e) {
+                call.reject("Failed to save alert tone: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void configureAlert(PluginCall call) {
+        try {
+            SignalAlertSettings settings = new SignalAlertSettings(context);
+            JSObject data = call.getData();
+
+            if (data.has("audioPath")) {
+                settings.setAlertAudioPath(call.getString("audioPath"));
+            }
+            if (data.has("duration")) {
+                settings.setAlertDurationMs(call.getInt("duration", 10000));
+            }
+            if (data.has("prewarmSeconds")) {
+                settings.setPrewarmLeadMs(call.getInt("prewarmSeconds", 0) * 1000L);
+            }
+            if (data.has("coalesceWindowMs")) {
+                settings.setCoalesceWindowMs(call.getInt("coalesceWindowMs", 1000));
+            }
+            if (data.has("denseHorizonSeconds")) {
+                settings.setDenseHorizonMs(call.getInt("denseHorizonSeconds", 0) * 1000L);
+            }
+            if (data.has("lateToleranceMs")) {
+                settings.setLateToleranceMs(call.getInt("lateToleranceMs", 2000));
+            }
+            if (data.has("staleToleranceMs")) {
+                settings.setStaleToleranceMs(call.getInt("staleToleranceMs", 60000));
+            }
+
+            // Re-arm so the pre-warm alarm follows the new lead time
+            scheduleEngine.ensureArmed();
+            if (data.has("denseHorizonSeconds") && SignalForegroundService.isRunning()) {
+                // Dense mode is only read when the service starts; have the running one re-check it
+                Intent serviceIntent = new Intent(context, SignalForegroundService.class);
+                serviceIntent.setAction(SignalForegroundService.ACTION_UPDATE_DENSE_MODE);
+                context.startService(serviceIntent);
+            }
+
+            JSObject result = new JSObject();
+            result.put("success", true);
+            call.resolve(result);
+
+        } catch (Exception e) {
+            call.reject("Failed to configure alert: " + e.getMessage());
+        }
+    }
+
     @PluginMethod
     public void stopAudio(PluginCall call) {
         try {
@@ -212,6 +514,31 @@ public class AndroidSignalPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void getTimingStats(PluginCall call) {
+        try {
+            TriggerTimingStats stats = TriggerTimingStats.getInstance();
+            JSObject result = stats.toJSObject();
+            if (call.getBoolean("reset", false)) {
+                stats.reset();
+            }
+            call.resolve(result);
+
+        } catch (Exception e) {
+            call.reject("Failed to get timing stats: " + e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getFlightRecord(PluginCall call) {
+        try {
+            call.resolve(SignalFlightRecorder.getInstance(context.getFilesDir()).toJSObject());
+
+        } catch (Exception e) {
+            call.reject("Failed to get flight record: " + e.getMessage());
+        }
+    }
+
     @PluginMethod
     public void requestBatteryOptimization(PluginCall call) {
         try {
@@ -0,0 +1,50 @@
+package com.androidsignalplugin;
+
+/**
+ * Synthesizes one period of the default alert beep (tone then silence) as
+ * PCM, so the pattern can be looped sample-accurately by an AudioTrack.
+ */
+public class BeepSynthesizer {
+    public static final int SAMPLE_RATE = 48000;
+    public static final int BEEP_MS = 500;
+    public static final int PERIOD_MS = 700; // 500ms beep + 200ms pause
+
+    private static final double FREQUENCY_HZ = 1000.0;
+    private static final double AMPLITUDE = 0.8;
+    private static final int RAMP_MS = 5; // Fade edges to avoid clicks
+
+    private static PcmDecoder.DecodedSound beepPeriod;
+
+    private BeepSynthesizer() {
+    }
+
+    public static synchronized PcmDecoder.DecodedSound beepPeriod() {
+        if (beepPeriod == null) {
+            beepPeriod = synthesize();
+        }
+        return beepPeriod;
+    }
+
+    /**
+     * Number of periods the old 700ms beep loop played for {@code durationMs}.
+     */
+    public static int periodsFor(int durationMs) {
+        return Math.max(1, (durationMs + PERIOD_MS - 1) / PERIOD_MS);
+    }
+
+    private static PcmDecoder.DecodedSound synthesize() {
+        int periodFrames = SAMPLE_RATE * PERIOD_MS / 1000;
+        int beepFrames = SAMPLE_RATE * BEEP_MS / 1000;
+        int rampFrames = SAMPLE_RATE * RAMP_MS / 1000;
+        short[] samples = new short[periodFrames];
+
+        double phaseStep = 2 * Math.PI * FREQUENCY_HZ / SAMPLE_RATE;
+        for (int i = 0; i < beepFrames; i++) {
+            double envelope = Math.min(1.0, Math.min(i, beepFrames - 1 - i) / (double) rampFrames);
+            samples[i] = (short) (Math.sin(i * phaseStep) * envelope * AMPLITUDE * Short.MAX_VALUE);
+        }
+        // Remaining frames stay zero: the pause between beeps
+
+        return new PcmDecoder.DecodedSound(samples, SAMPLE_RATE, 1);
+    }
+}
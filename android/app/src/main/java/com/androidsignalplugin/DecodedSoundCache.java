@@ -0,0 +1,140 @@
+package com.androidsignalplugin;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide LRU cache of decoded alert tones, bounded by a byte budget.
+ *
+ * Entries remember the source's last-modified stamp. {@link #load} checks it
+ * and re-decodes a changed file; {@link #peek} trusts the cached copy and
+ * never decodes, so a trigger never touches storage or the codec.
+ */
+public class DecodedSoundCache {
+    private static final String TAG = "DecodedSoundCache";
+
+    private static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    // DocumentsContract.Document.COLUMN_LAST_MODIFIED
+    private static final String COLUMN_LAST_MODIFIED = "last_modified";
+
+    private static DecodedSoundCache instance;
+
+    private final LinkedHashMap<String, CachedSound> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long currentBytes;
+
+    public static synchronized DecodedSoundCache getInstance() {
+        if (instance == null) {
+            instance = new DecodedSoundCache();
+        }
+        return instance;
+    }
+
+    private DecodedSoundCache() {
+    }
+
+    /**
+     * Returns the cached tone, or null if it has not been decoded.
+     */
+    public synchronized PcmDecoder.DecodedSound peek(String audioPath) {
+        CachedSound cached = entries.get(audioPath);
+        return cached != null ? cached.sound : null;
+    }
+
+    /**
+     * Ensures the current version of the tone is cached, re-decoding it if the
+     * source changed since it was last loaded.
+     */
+    public PcmDecoder.DecodedSound load(Context context, String audioPath) throws IOException {
+        long version = lastModified(context, Uri.parse(audioPath));
+        synchronized (this) {
+            CachedSound cached = entries.get(audioPath);
+            if (cached != null && cached.version == version) {
+                return cached.sound;
+            }
+        }
+        return decodeAndPut(context, audioPath, version);
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops every decoded tone; the next alert decodes its tone again.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    private PcmDecoder.DecodedSound decodeAndPut(Context context, String audioPath, long version) throws IOException {
+        PcmDecoder.DecodedSound sound = PcmDecoder.decode(context, Uri.parse(audioPath));
+        synchronized (this) {
+            CachedSound previous = entries.put(audioPath, new CachedSound(sound, version));
+            if (previous != null) {
+                currentBytes -= previous.sound.sizeInBytes();
+            }
+            currentBytes += sound.sizeInBytes();
+            evict();
+        }
+        SignalLog.d(TAG, "Decoded {} ({} bytes)", audioPath, sound.sizeInBytes());
+        return sound;
+    }
+
+    private void evict() {
+        // Always keep the most recent entry, even if it alone exceeds the budget
+        Iterator<Map.Entry<String, CachedSound>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            CachedSound eldest = iterator.next().getValue();
+            iterator.remove();
+            currentBytes -= eldest.sound.sizeInBytes();
+        }
+    }
+
+    private static long lastModified(Context context, Uri uri) {
+        if ("file".equals(uri.getScheme())) {
+            return new File(uri.getPath()).lastModified();
+        }
+        if ("content".equals(uri.getScheme())) {
+            try (Cursor cursor = context.getContentResolver().query(uri, new String[] { COLUMN_LAST_MODIFIED }, null, null, null)) {
+                if (cursor != null && cursor.moveToFirst()) {
+                    int column = cursor.getColumnIndex(COLUMN_LAST_MODIFIED);
+                    if (column >= 0) {
+                        return cursor.getLong(column);
+                    }
+                }
+            } catch (Exception e) {
+                SignalLog.w(TAG, "No last-modified for {}", uri);
+            }
+        }
+        return 0;
+    }
+
+    private static class CachedSound {
+        final PcmDecoder.DecodedSound sound;
+        final long version;
+
+        CachedSound(PcmDecoder.DecodedSound sound, long version) {
+            this.sound = sound;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.androidsignalplugin;
+
+import android.os.Process;
+import android.util.Log;
+
+import com.androidsignalplugin.core.Clock;
+
+/**
+ * High-priority timer thread that fires the next trigger in-process. Deadlines
+ * are kept on the monotonic {@link Clock#elapsedRealtime} clock, so wall clock
+ * adjustments cannot move them.
+ */
+public class DenseTriggerTimer {
+    public interface Callback {
+        void onDue();
+    }
+
+    private static final String TAG = "DenseTriggerTimer";
+
+    private static final long IDLE = Long.MAX_VALUE;
+
+    private final Clock clock;
+    private final Callback callback;
+    private long dueElapsedRealtime = IDLE;
+    private boolean running = true;
+
+    public DenseTriggerTimer(Clock clock, Callback callback) {
+        this.clock = clock;
+        this.callback = callback;
+        new Thread(this::loop, "SignalDenseTimer").start();
+    }
+
+    /**
+     * Replaces the pending deadline; a negative value clears it.
+     */
+    public synchronized void setNext(long dueElapsedRealtime) {
+        this.dueElapsedRealtime = dueElapsedRealtime < 0 ? IDLE : dueElapsedRealtime;
+        notifyAll();
+    }
+
+    public synchronized void quit() {
+        running = false;
+        notifyAll();
+    }
+
+    private void loop() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+        while (awaitDeadline()) {
+            try {
+                callback.onDue();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "In-process trigger failed", e);
+            }
+        }
+    }
+
+    private synchronized boolean awaitDeadline() {
+        while (running) {
+            // wait(0) sleeps until the next setNext() or quit()
+            long remaining = dueElapsedRealtime == IDLE ? 0 : dueElapsedRealtime - clock.elapsedRealtime();
+            if (dueElapsedRealtime != IDLE && remaining <= 0) {
+                dueElapsedRealtime = IDLE;
+                return true;
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package com.androidsignalplugin;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTimestamp;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.androidsignalplugin.core.Clock;
+
+/**
+ * Plays a pre-decoded tone from a static-mode AudioTrack that is built and
+ * filled before the trigger, so starting an alert is a single play() call.
+ */
+public class LowLatencyAudioPlayer {
+    private static final String TAG = "LowLatencyAudioPlayer";
+
+    private static final int FIRST_SAMPLE_POLL_INTERVAL_MS = 5;
+    private static final int FIRST_SAMPLE_POLL_ATTEMPTS = 100;
+
+    public interface FirstSampleListener {
+        void onFirstSample(long firstSampleAtMillis);
+    }
+
+    private final Handler handler;
+    private final Clock clock;
+    private final FirstSampleListener firstSampleListener;
+    private AudioTrack audioTrack;
+    private PcmDecoder.DecodedSound preparedSound;
+
+    public LowLatencyAudioPlayer(Handler handler, Clock clock, FirstSampleListener firstSampleListener) {
+        this.handler = handler;
+        this.clock = clock;
+        this.firstSampleListener = firstSampleListener;
+    }
+
+    public boolean isPreparedFor(PcmDecoder.DecodedSound sound) {
+        return audioTrack != null && preparedSound == sound;
+    }
+
+    public void prepare(PcmDecoder.DecodedSound sound) {
+        if (isPreparedFor(sound)) {
+            return;
+        }
+        if (sound.channelCount > 2) {
+            throw new IllegalArgumentException("Unsupported channel count " + sound.channelCount);
+        }
+        release();
+
+        AudioAttributes audioAttributes = new AudioAttributes.Builder()
+            .setUsage(AudioAttributes.USAGE_ALARM)
+            .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+            .setFlags(AudioAttributes.FLAG_LOW_LATENCY)
+            .build();
+
+        AudioFormat audioFormat = new AudioFormat.Builder()
+            .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+            .setSampleRate(sound.sampleRate)
+            .setChannelMask(sound.channelCount == 1 ? AudioFormat.CHANNEL_OUT_MONO : AudioFormat.CHANNEL_OUT_STEREO)
+            .build();
+
+        AudioTrack.Builder builder = new AudioTrack.Builder()
+            .setAudioAttributes(audioAttributes)
+            .setAudioFormat(audioFormat)
+            .setTransferMode(AudioTrack.MODE_STATIC)
+            .setBufferSizeInBytes(sound.sizeInBytes());
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            builder.setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY);
+        }
+
+        AudioTrack track = builder.build();
+        track.write(sound.samples, 0, sound.samples.length);
+        if (track.getState() != AudioTrack.STATE_INITIALIZED) {
+            track.release();
+            throw new IllegalStateException("AudioTrack failed to initialise");
+        }
+
+        audioTrack = track;
+        preparedSound = sound;
+        SignalLog.d(TAG, "Prepared static track: {} frames @ {} Hz", sound.frameCount(), sound.sampleRate);
+    }
+
+    /**
+     * Starts the prepared sound and replays it {@code loopCount} more times,
+     * or until {@link #stop()} when {@code loopCount} is -1.
+     */
+    public void start(int loopCount) {
+        if (audioTrack == null) {
+            throw new IllegalStateException("No prepared track");
+        }
+
+        audioTrack.setLoopPoints(0, preparedSound.frameCount(), loopCount);
+        audioTrack.play();
+        awaitFirstSample(0);
+    }
+
+    public void stop() {
+        handler.removeCallbacksAndMessages(this);
+        if (audioTrack == null) {
+            return;
+        }
+        try {
+            audioTrack.stop();
+            // Rewind the static buffer so the next start plays from the top
+            audioTrack.reloadStaticData();
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Error stopping AudioTrack", e);
+        }
+    }
+
+    public void setVolume(float volume) {
+        if (audioTrack != null) {
+            audioTrack.setVolume(volume);
+        }
+    }
+
+    public boolean isPlaying() {
+        return audioTrack != null && audioTrack.getPlayState() == AudioTrack.PLAYSTATE_PLAYING;
+    }
+
+    public void release() {
+        handler.removeCallbacksAndMessages(this);
+        if (audioTrack != null) {
+            audioTrack.release();
+            audioTrack = null;
+        }
+        preparedSound = null;
+    }
+
+    private void awaitFirstSample(int attempt) {
+        AudioTrack track = audioTrack;
+        if (track == null || firstSampleListener == null || attempt >= FIRST_SAMPLE_POLL_ATTEMPTS) {
+            return;
+        }
+
+        // The output timestamp lets us back-date the first frame to when it hit the DAC
+        AudioTimestamp timestamp = new AudioTimestamp();
+        if (track.getTimestamp(timestamp) && timestamp.framePosition > 0) {
+            long firstSampleNanos = timestamp.nanoTime - timestamp.framePosition * 1_000_000_000L / preparedSound.sampleRate;
+            long firstSampleAtMillis = clock.currentTimeMillis() - (System.nanoTime() - firstSampleNanos) / 1_000_000L;
+            firstSampleListener.onFirstSample(firstSampleAtMillis);
+            return;
+        }
+
+        handler.postAtTime(() -> awaitFirstSample(attempt + 1), this,
+            SystemClock.uptimeMillis() + FIRST_SAMPLE_POLL_INTERVAL_MS);
+    }
+}
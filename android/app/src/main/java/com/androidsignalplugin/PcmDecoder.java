@@ -0,0 +1,152 @@
+package com.androidsignalplugin;
+
+import android.content.Context;
+import android.media.AudioFormat;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.net.Uri;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Decodes an alert tone to 16-bit PCM with MediaExtractor/MediaCodec so it
+ * can be handed to a static AudioTrack ahead of the trigger.
+ */
+public class PcmDecoder {
+    // Alerts loop the clip, so anything longer than this is never heard
+    private static final int MAX_DECODE_SECONDS = 15;
+    private static final long CODEC_TIMEOUT_US = 10_000;
+
+    private PcmDecoder() {
+    }
+
+    public static DecodedSound decode(Context context, Uri uri) throws IOException {
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+        try {
+            extractor.setDataSource(context, uri, null);
+
+            int trackIndex = -1;
+            MediaFormat format = null;
+            for (int i = 0; i < extractor.getTrackCount(); i++) {
+                MediaFormat candidate = extractor.getTrackFormat(i);
+                String mime = candidate.getString(MediaFormat.KEY_MIME);
+                if (mime != null && mime.startsWith("audio/")) {
+                    trackIndex = i;
+                    format = candidate;
+                    break;
+                }
+            }
+            if (format == null) {
+                throw new IOException("No audio track in " + uri);
+            }
+            extractor.selectTrack(trackIndex);
+
+            int sampleRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            int channelCount = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+            int maxSamples = sampleRate * channelCount * MAX_DECODE_SECONDS;
+
+            codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+            codec.configure(format, null, null, 0);
+            codec.start();
+
+            short[] pcm = new short[Math.min(maxSamples, sampleRate * channelCount)];
+            int written = 0;
+            boolean inputDone = false;
+            boolean outputDone = false;
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+
+            while (!outputDone && written < maxSamples) {
+                if (!inputDone) {
+                    int inputIndex = codec.dequeueInputBuffer(CODEC_TIMEOUT_US);
+                    if (inputIndex >= 0) {
+                        ByteBuffer input = codec.getInputBuffer(inputIndex);
+                        int size = extractor.readSampleData(input, 0);
+                        if (size < 0) {
+                            codec.queueInputBuffer(inputIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            codec.queueInputBuffer(inputIndex, 0, size, extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+
+                int outputIndex = codec.dequeueOutputBuffer(info, CODEC_TIMEOUT_US);
+                if (outputIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outputFormat = codec.getOutputFormat();
+                    sampleRate = outputFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                    channelCount = outputFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                    int encoding = outputFormat.getInteger(MediaFormat.KEY_PCM_ENCODING, AudioFormat.ENCODING_PCM_16BIT);
+                    if (encoding != AudioFormat.ENCODING_PCM_16BIT) {
+                        throw new IOException("Unsupported PCM encoding " + encoding);
+                    }
+                    maxSamples = sampleRate * channelCount * MAX_DECODE_SECONDS;
+                } else if (outputIndex >= 0) {
+                    ByteBuffer output = codec.getOutputBuffer(outputIndex);
+                    if (output != null && info.size > 0) {
+                        output.position(info.offset);
+                        output.limit(info.offset + info.size);
+                        ShortBuffer samples = output.order(ByteOrder.nativeOrder()).asShortBuffer();
+                        int count = Math.min(samples.remaining(), maxSamples - written);
+                        if (written + count > pcm.length) {
+                            short[] grown = new short[Math.min(maxSamples, Math.max(pcm.length * 2, written + count))];
+                            System.arraycopy(pcm, 0, grown, 0, written);
+                            pcm = grown;
+                        }
+                        samples.get(pcm, written, count);
+                        written += count;
+                    }
+                    codec.releaseOutputBuffer(outputIndex, false);
+                    if ((info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
+                        outputDone = true;
+                    }
+                }
+            }
+
+            // Keep whole frames only
+            written -= written % channelCount;
+            if (written == 0) {
+                throw new IOException("Decoded no audio from " + uri);
+            }
+            short[] trimmed = new short[written];
+            System.arraycopy(pcm, 0, trimmed, 0, written);
+            return new DecodedSound(trimmed, sampleRate, channelCount);
+
+        } finally {
+            if (codec != null) {
+                try {
+                    codec.stop();
+                } catch (IllegalStateException ignored) {
+                    // Codec never reached the executing state
+                }
+                codec.release();
+            }
+            extractor.release();
+        }
+    }
+
+    public static class DecodedSound {
+        public final short[] samples;
+        public final int sampleRate;
+        public final int channelCount;
+
+        public DecodedSound(short[] samples, int sampleRate, int channelCount) {
+            this.samples = samples;
+            this.sampleRate = sampleRate;
+            this.channelCount = channelCount;
+        }
+
+        public int frameCount() {
+            return samples.length / channelCount;
+        }
+
+        public int sizeInBytes() {
+            return samples.length * 2;
+        }
+    }
+}
@@ -1,4 +1,3 @@
-
 package com.androidsignalplugin;
 
 import android.content.BroadcastReceiver;
@@ -7,22 +6,146 @@ import android.content.Intent;
 import android.os.Build;
 import android.util.Log;
 
+import com.androidsignalplugin.core.AlarmDelivery;
+import com.androidsignalplugin.core.AudioSink;
+import com.androidsignalplugin.core.SignalRecord;
+import com.androidsignalplugin.core.SignalTimePlanner;
+import com.androidsignalplugin.core.TimelineEntry;
+
+import java.util.Collections;
+import java.util.List;
+
 public class SignalAlarmReceiver extends BroadcastReceiver {
     private static final String TAG = "SignalAlarmReceiver";
 
+    // Stop button on the alert notification; a broadcast so no service start is needed
+    public static final String ACTION_STOP_ALERT = "com.androidsignalplugin.STOP_ALERT";
+
     @Override
     public void onReceive(Context context, Intent intent) {
-        Log.d(TAG, "Alarm received!");
-        
-        String signalData = intent.getStringExtra("signalData");
+        if (isRearmBroadcast(intent.getAction())) {
+            // Cached midnights are stale after a clock or zone change
+            SignalTimePlanner.getInstance().invalidate();
+            rearmFromDisk(context, intent.getAction());
+            return;
+        }
+        if (ACTION_STOP_ALERT.equals(intent.getAction())) {
+            stopAlert(context);
+            return;
+        }
+
+        // Stamp the delivery here; the engine's disk I/O runs off the main thread
+        long receivedAt = SignalRuntime.clock().currentTimeMillis();
+        SignalLog.d(TAG, "Alarm received!");
+        PendingResult pendingResult = goAsync();
+        new Thread(() -> {
+            try {
+                handleAlarm(context, intent, receivedAt);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to handle alarm", e);
+            } finally {
+                pendingResult.finish();
+            }
+        }, "SignalAlarm").start();
+    }
+
+    private void handleAlarm(Context context, Intent intent, long receivedAt) {
+        SignalFlightRecorder flightRecorder = SignalFlightRecorder.getInstance(context.getFilesDir());
+        long signalMeta = intent.getLongExtra("signalMeta", 0);
+        long signalAt = intent.getLongExtra("signalAt", 0);
         int alarmId = intent.getIntExtra("alarmId", 0);
-        
+        long scheduledAt = intent.getLongExtra("scheduledAt", 0);
+        flightRecorder.record(SignalFlightRecorder.EVENT_ALARM_RECEIVED, alarmId, receivedAt - scheduledAt);
+        TimelineEntry armed = new TimelineEntry(alarmId, scheduledAt, SignalRecord.unpack(signalMeta, signalAt));
+
+        AlarmDelivery.Target target = new AlarmDelivery.Target() {
+            @Override
+            public void fire(List<TimelineEntry> group) {
+                // Coalesced signals share one service start, one playback and one notification
+                TriggerTimingStats.getInstance().recordReceiver(group.get(0).triggerAtMillis, receivedAt);
+                startSignalService(context, group);
+            }
+
+            @Override
+            public void prewarm(long triggerAtMillis) {
+                // Woken ahead of the trigger: the service warms up and fires it on time
+                flightRecorder.record(SignalFlightRecorder.EVENT_PREWARM, alarmId, triggerAtMillis - receivedAt);
+                startPrewarm(context, triggerAtMillis);
+            }
+        };
+        if (SignalScheduleEngine.ACTION_FIRE_NEXT.equals(intent.getAction())) {
+            // Pop everything due and re-arm the next entry
+            AlarmDelivery.deliver(SignalScheduleEngine.getInstance(context), receivedAt, armed, target);
+        } else {
+            target.fire(Collections.singletonList(armed));
+        }
+    }
+
+    private void stopAlert(Context context) {
+        AudioSink audioSink = SignalRuntime.acquireAudioSink(context);
+        audioSink.stopAudio();
+        audioSink.release();
+        SignalAlertNotifications.getInstance(context).cancel();
+    }
+
+    private boolean isRearmBroadcast(String action) {
+        return Intent.ACTION_BOOT_COMPLETED.equals(action)
+            || Intent.ACTION_TIME_CHANGED.equals(action)
+            || Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+            || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action);
+    }
+
+    private void rearmFromDisk(Context context, String action) {
+        // Replay the persisted timeline off the main thread; no WebView or service needed
+        PendingResult pendingResult = goAsync();
+        new Thread(() -> {
+            try {
+                SignalScheduleEngine engine = SignalScheduleEngine.getInstance(context);
+                engine.ensureArmed();
+                SignalLog.d(TAG, "Re-armed {} pending signals after {}", engine.size(), action);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to re-arm signals after " + action, e);
+            } finally {
+                pendingResult.finish();
+            }
+        }, "SignalRearm").start();
+    }
+
+    private void startSignalService(Context context, List<TimelineEntry> group) {
+        long[] signalMetas = new long[group.size()];
+        long[] signalAts = new long[group.size()];
+        int[] alarmIds = new int[group.size()];
+        long[] triggerAts = new long[group.size()];
+        for (int i = 0; i < group.size(); i++) {
+            TimelineEntry entry = group.get(i);
+            signalMetas[i] = entry.record.packMeta();
+            signalAts[i] = entry.record.signalAtMillis;
+            alarmIds[i] = entry.id;
+            triggerAts[i] = entry.triggerAtMillis;
+        }
+
         // Start foreground service to handle the alarm
         Intent serviceIntent = new Intent(context, SignalForegroundService.class);
         serviceIntent.setAction("TRIGGER_SIGNAL");
-        serviceIntent.putExtra("signalData", signalData);
-        serviceIntent.putExtra("alarmId", alarmId);
-        
+        serviceIntent.putExtra("signalMetas", signalMetas);
+        serviceIntent.putExtra("signalAts", signalAts);
+        serviceIntent.putExtra("alarmIds", alarmIds);
+        // Each entry is classified on its own trigger time
+        serviceIntent.putExtra("triggerAts", triggerAts);
+        // Keeps the CPU awake until the service reports the alert audible
+        serviceIntent.putExtra(TriggerWakeLock.EXTRA_TOKEN, TriggerWakeLock.acquire(context));
+        startService(context, serviceIntent);
+    }
+
+    private void startPrewarm(Context context, long triggerAtMillis) {
+        Intent serviceIntent = new Intent(context, SignalForegroundService.class);
+        serviceIntent.setAction(SignalForegroundService.ACTION_PREWARM_AUDIO);
+        serviceIntent.putExtra("triggerAt", triggerAtMillis);
+        serviceIntent.putExtra(TriggerWakeLock.EXTRA_TOKEN, TriggerWakeLock.acquire(context));
+        startService(context, serviceIntent);
+    }
+
+    private void startService(Context context, Intent serviceIntent) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             context.startForegroundService(serviceIntent);
         } else {
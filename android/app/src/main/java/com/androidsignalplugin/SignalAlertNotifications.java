@@ -0,0 +1,184 @@
+package com.androidsignalplugin;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import androidx.core.app.NotificationCompat;
+
+import com.androidsignalplugin.core.LateFirePolicy;
+import com.androidsignalplugin.core.PrebuiltAlerts;
+import com.androidsignalplugin.core.TimelineEntry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Heads-up alert notifications on a high-importance channel. The next few
+ * pending signals have theirs built ahead of time on a background thread, so
+ * an on-time trigger only has to post it. Late, stale and coalesced triggers
+ * are built when they fire.
+ */
+public class SignalAlertNotifications {
+    public static final String CHANNEL_ID = "signal_alerts";
+    public static final int NOTIFICATION_ID = 2;
+
+    // How many upcoming signals are kept pre-built
+    public static final int PREBUILD_COUNT = 8;
+
+    private static final String TAG = "SignalAlertNotifications";
+
+    private static final int CONTENT_REQUEST_CODE = 3;
+    private static final int STOP_REQUEST_CODE = 4;
+
+    private static SignalAlertNotifications instance;
+
+    private final Context context;
+    private final NotificationManager notificationManager;
+    private final ExecutorService buildExecutor = Executors.newSingleThreadExecutor();
+    private final PrebuiltAlerts<Notification> prebuilt = new PrebuiltAlerts<>();
+
+    public static synchronized SignalAlertNotifications getInstance(Context context) {
+        if (instance == null) {
+            instance = new SignalAlertNotifications(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SignalAlertNotifications(Context context) {
+        this.context = context;
+        this.notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        createChannel();
+    }
+
+    /**
+     * Builds notifications for {@code upcoming} that are not built yet and
+     * drops any for cancelled signals. Ones for signals that just fired are
+     * kept for {@link #show}. Returns immediately.
+     */
+    public void prepare(List<TimelineEntry> upcoming) {
+        buildExecutor.execute(() -> {
+            for (TimelineEntry entry : upcoming) {
+                if (prebuilt.needsBuild(entry)) {
+                    prebuilt.put(entry, build(Collections.singletonList(entry), LateFirePolicy.ON_TIME, 0));
+                }
+            }
+            prebuilt.retain(upcoming, SignalRuntime.clock().currentTimeMillis());
+        });
+    }
+
+    /**
+     * Posts the alert for a fired group, using the pre-built notification
+     * when there is one for it.
+     */
+    public void show(List<TimelineEntry> group, int classification, long latenessMs) {
+        Notification notification = null;
+        for (TimelineEntry entry : group) {
+            Notification ready = prebuilt.take(entry);
+            if (group.size() == 1 && classification == LateFirePolicy.ON_TIME) {
+                notification = ready;
+            }
+        }
+        if (notification == null) {
+            notification = build(group, classification, latenessMs);
+            SignalLog.d(TAG, "Alert {} built on the trigger path", group.get(0).id);
+        } else {
+            SignalLog.d(TAG, "Alert {} posted pre-built", group.get(0).id);
+        }
+        notificationManager.notify(NOTIFICATION_ID, notification);
+    }
+
+    public void cancel() {
+        notificationManager.cancel(NOTIFICATION_ID);
+    }
+
+    private Notification build(List<TimelineEntry> group, int classification, long latenessMs) {
+        SignalSymbolTable symbols = SignalSymbolTable.getInstance(context.getFilesDir());
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+        for (TimelineEntry entry : group) {
+            style.addLine(entry.record.describe(symbols));
+        }
+
+        boolean stale = classification == LateFirePolicy.STALE;
+        String first = group.get(0).record.describe(symbols);
+        String title = group.size() == 1 ? "Signal Alert" : group.size() + " Signal Alerts";
+        if (stale) {
+            title = group.size() == 1 ? "Missed Signal" : group.size() + " Missed Signals";
+        } else if (classification == LateFirePolicy.LATE) {
+            title += " (" + (latenessMs / 1000) + "s late)";
+        }
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setContentTitle(title)
+            .setContentText(group.size() == 1 ? first : first + " and " + (group.size() - 1) + " more")
+            .setStyle(style.setBigContentTitle(title))
+            .setNumber(group.size())
+            .setSmallIcon(android.R.drawable.ic_dialog_info)
+            .setWhen(group.get(0).triggerAtMillis)
+            .setShowWhen(true)
+            .setCategory(NotificationCompat.CATEGORY_ALARM)
+            .setPriority(NotificationCompat.PRIORITY_HIGH)
+            .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+            .setSilent(stale)
+            .setAutoCancel(true);
+
+        PendingIntent contentIntent = buildContentIntent();
+        if (contentIntent != null) {
+            builder.setContentIntent(contentIntent);
+            if (!stale) {
+                // Pops over the lock screen or a full-screen app
+                builder.setFullScreenIntent(contentIntent, true);
+            }
+        }
+        if (!stale) {
+            builder.addAction(android.R.drawable.ic_media_pause, "Stop", buildStopIntent());
+        }
+        return builder.build();
+    }
+
+    private PendingIntent buildContentIntent() {
+        Intent launchIntent = context.getPackageManager().getLaunchIntentForPackage(context.getPackageName());
+        if (launchIntent == null) {
+            return null;
+        }
+        launchIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        return PendingIntent.getActivity(
+            context,
+            CONTENT_REQUEST_CODE,
+            launchIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    private PendingIntent buildStopIntent() {
+        Intent intent = new Intent(context, SignalAlarmReceiver.class);
+        intent.setAction(SignalAlarmReceiver.ACTION_STOP_ALERT);
+        return PendingIntent.getBroadcast(
+            context,
+            STOP_REQUEST_CODE,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    private void createChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "Signal Alerts",
+                NotificationManager.IMPORTANCE_HIGH
+            );
+            channel.setDescription("Heads-up alert when a signal triggers");
+            // The alert sound is played by the service itself
+            channel.setSound(null, null);
+            channel.enableVibration(true);
+            channel.setLockscreenVisibility(Notification.VISIBILITY_PUBLIC);
+            notificationManager.createNotificationChannel(channel);
+        }
+    }
+}
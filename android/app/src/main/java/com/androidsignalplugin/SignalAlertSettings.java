@@ -0,0 +1,110 @@
+package com.androidsignalplugin;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.androidsignalplugin.core.ScheduleSettings;
+
+/**
+ * Native alert settings that must be readable without the WebView, e.g. from
+ * the alarm receiver or a restarted service.
+ */
+public class SignalAlertSettings implements ScheduleSettings {
+    private static final String PREFS_NAME = "signal_alert_settings";
+
+    private static final String KEY_ALERT_AUDIO_PATH = "alertAudioPath";
+    private static final String KEY_ALERT_DURATION_MS = "alertDurationMs";
+    private static final String KEY_PREWARM_LEAD_MS = "prewarmLeadMs";
+    private static final String KEY_COALESCE_WINDOW_MS = "coalesceWindowMs";
+    private static final String KEY_DENSE_HORIZON_MS = "denseHorizonMs";
+    private static final String KEY_LATE_TOLERANCE_MS = "lateToleranceMs";
+    private static final String KEY_STALE_TOLERANCE_MS = "staleToleranceMs";
+
+    private static final int DEFAULT_ALERT_DURATION_MS = 10000;
+    private static final long DEFAULT_COALESCE_WINDOW_MS = 1000;
+    private static final long DEFAULT_LATE_TOLERANCE_MS = 2000;
+    private static final long DEFAULT_STALE_TOLERANCE_MS = 60000;
+
+    private final SharedPreferences prefs;
+
+    public SignalAlertSettings(Context context) {
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Custom tone URI, or null for the default beep.
+     */
+    public String getAlertAudioPath() {
+        return prefs.getString(KEY_ALERT_AUDIO_PATH, null);
+    }
+
+    public void setAlertAudioPath(String audioPath) {
+        prefs.edit().putString(KEY_ALERT_AUDIO_PATH, audioPath).apply();
+    }
+
+    public int getAlertDurationMs() {
+        return prefs.getInt(KEY_ALERT_DURATION_MS, DEFAULT_ALERT_DURATION_MS);
+    }
+
+    public void setAlertDurationMs(int durationMs) {
+        prefs.edit().putInt(KEY_ALERT_DURATION_MS, durationMs).apply();
+    }
+
+    /**
+     * How long before a trigger the audio pipeline is warmed up; 0 disables it.
+     */
+    @Override
+    public long getPrewarmLeadMs() {
+        return prefs.getLong(KEY_PREWARM_LEAD_MS, 0);
+    }
+
+    public void setPrewarmLeadMs(long leadMs) {
+        prefs.edit().putLong(KEY_PREWARM_LEAD_MS, leadMs).apply();
+    }
+
+    /**
+     * Signals triggering within this window of each other fire as one alert.
+     */
+    @Override
+    public long getCoalesceWindowMs() {
+        return prefs.getLong(KEY_COALESCE_WINDOW_MS, DEFAULT_COALESCE_WINDOW_MS);
+    }
+
+    public void setCoalesceWindowMs(long windowMs) {
+        prefs.edit().putLong(KEY_COALESCE_WINDOW_MS, windowMs).apply();
+    }
+
+    /**
+     * While the foreground service runs, triggers up to this far ahead are
+     * fired from its own timer instead of AlarmManager; 0 disables dense mode.
+     */
+    public long getDenseHorizonMs() {
+        return prefs.getLong(KEY_DENSE_HORIZON_MS, 0);
+    }
+
+    public void setDenseHorizonMs(long horizonMs) {
+        prefs.edit().putLong(KEY_DENSE_HORIZON_MS, horizonMs).apply();
+    }
+
+    /**
+     * Triggers running later than this still sound but are flagged as late.
+     */
+    public long getLateToleranceMs() {
+        return prefs.getLong(KEY_LATE_TOLERANCE_MS, DEFAULT_LATE_TOLERANCE_MS);
+    }
+
+    public void setLateToleranceMs(long toleranceMs) {
+        prefs.edit().putLong(KEY_LATE_TOLERANCE_MS, toleranceMs).apply();
+    }
+
+    /**
+     * Triggers running later than this are reported as missed and not sounded.
+     */
+    public long getStaleToleranceMs() {
+        return prefs.getLong(KEY_STALE_TOLERANCE_MS, DEFAULT_STALE_TOLERANCE_MS);
+    }
+
+    public void setStaleToleranceMs(long toleranceMs) {
+        prefs.edit().putLong(KEY_STALE_TOLERANCE_MS, toleranceMs).apply();
+    }
+}
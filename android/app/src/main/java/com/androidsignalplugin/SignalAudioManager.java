@@ -5,36 +5,234 @@ import android.media.AudioAttributes;
 import android.media.AudioFocusRequest;
 import android.media.AudioManager;
 import android.media.MediaPlayer;
-import android.media.ToneGenerator;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Handler;
-import android.os.Looper;
+import android.os.HandlerThread;
+import android.os.Process;
 import android.util.Log;
 
+import com.androidsignalplugin.core.AudioSink;
+import com.androidsignalplugin.core.Clock;
+import com.getcapacitor.JSObject;
+
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class SignalAudioManager implements AudioManager.OnAudioFocusChangeListener {
+/**
+ * Alert audio engine. All player and focus state is confined to a dedicated
+ * URGENT_AUDIO HandlerThread; the public methods only post commands to it and
+ * are safe to call from any thread.
+ *
+ * One engine is shared by the plugin and the foreground service, so a stop
+ * from JS reaches an alert the service started. It lives as long as anyone
+ * holds a reference from {@link #acquire}.
+ */
+public class SignalAudioManager implements AudioSink, AudioManager.OnAudioFocusChangeListener {
     private static final String TAG = "SignalAudioManager";
-    
-    private Context context;
-    private AudioManager audioManager;
+
+    private static SignalAudioManager instance;
+    private static int refCount;
+
+    private enum State {
+        IDLE,
+        WARM,
+        PLAYING
+    }
+
+    private final Context context;
+    private final Clock clock;
+    private final AudioManager audioManager;
+    private final HandlerThread audioThread;
+    private final Handler handler;
+    private final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor();
+    private final DecodedSoundCache soundCache = DecodedSoundCache.getInstance();
+    private final SignalFlightRecorder flightRecorder;
+
+    // Confined to audioThread
+    private State state = State.IDLE;
     private MediaPlayer mediaPlayer;
-    private ToneGenerator toneGenerator;
     private AudioFocusRequest audioFocusRequest;
-    private Handler handler;
+    private final LowLatencyAudioPlayer lowLatencyPlayer;
+    private final LowLatencyAudioPlayer beepPlayer;
+    private long pendingScheduledAtMillis;
+    private Runnable pendingOnStarted;
+
+    private final Runnable stopTimer = this::doStop;
+    private final Runnable prewarmTimeout = () -> {
+        if (state == State.WARM) {
+            SignalLog.d(TAG, "Pre-warm expired without a trigger");
+            doStop();
+        }
+    };
 
-    public SignalAudioManager(Context context) {
+    /**
+     * Returns the process-wide engine, creating it on first use. Every call
+     * must be balanced by one {@link #release()}.
+     */
+    public static synchronized SignalAudioManager acquire(Context context) {
+        if (instance == null) {
+            instance = new SignalAudioManager(context.getApplicationContext());
+        }
+        refCount++;
+        return instance;
+    }
+
+    private SignalAudioManager(Context context) {
         this.context = context;
+        this.clock = SignalRuntime.clock();
+        this.flightRecorder = SignalFlightRecorder.getInstance(context.getFilesDir());
         this.audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
-        this.handler = new Handler(Looper.getMainLooper());
+        this.audioThread = new HandlerThread("SignalAudio", Process.THREAD_PRIORITY_URGENT_AUDIO);
+        this.audioThread.start();
+        this.handler = new Handler(audioThread.getLooper());
+        this.lowLatencyPlayer = new LowLatencyAudioPlayer(handler, clock, this::onFirstSample);
+        this.beepPlayer = new LowLatencyAudioPlayer(handler, clock, this::onFirstSample);
+    }
+
+    /**
+     * Decodes a custom tone and builds its AudioTrack ahead of the trigger.
+     * Blocking; call off the main thread.
+     */
+    public void preloadAudio(String audioPath) throws IOException {
+        PcmDecoder.DecodedSound sound = awaitDecode(() -> soundCache.load(context, audioPath));
+        handler.post(() -> prepareQuietly(lowLatencyPlayer, sound));
+    }
+
+    /**
+     * Decodes tones into the shared cache without touching the prepared track.
+     * Blocking; call off the main thread.
+     */
+    public int preloadTones(Iterable<String> audioPaths) {
+        int loaded = 0;
+        for (String audioPath : audioPaths) {
+            try {
+                awaitDecode(() -> soundCache.load(context, audioPath));
+                loaded++;
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to preload tone " + audioPath, e);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Acquires focus and loads the alert sound ahead of a trigger so that
+     * {@link #playAudio} only has to start playback. Released again after
+     * {@code holdMs} if no trigger arrives.
+     */
+    @Override
+    public void prewarm(String audioPath, long holdMs) {
+        handler.post(() -> doPrewarm(holdMs));
+
+        if (audioPath != null) {
+            // Decode off the audio thread so it stays free for commands
+            decodeExecutor.execute(() -> {
+                try {
+                    PcmDecoder.DecodedSound sound = soundCache.load(context, audioPath);
+                    handler.post(() -> prepareQuietly(lowLatencyPlayer, sound));
+                } catch (IOException e) {
+                    Log.e(TAG, "Failed to pre-warm custom audio", e);
+                }
+            });
+        } else {
+            handler.post(() -> prepareQuietly(beepPlayer, BeepSynthesizer.beepPeriod()));
+        }
     }
 
     public void playAudio(String audioPath, boolean isCustom, int duration) {
-        stopAudio(); // Stop any existing audio
-        
-        requestAudioFocus();
-        
+        playAudio(audioPath, isCustom, duration, 0);
+    }
+
+    /**
+     * Plays an alert for a scheduled trigger; the first audible sample is
+     * recorded in {@link TriggerTimingStats} against {@code scheduledAtMillis}.
+     */
+    public void playAudio(String audioPath, boolean isCustom, int duration, long scheduledAtMillis) {
+        playAudio(audioPath, isCustom, duration, scheduledAtMillis, null);
+    }
+
+    /**
+     * As above; {@code onStarted} runs on the audio thread once the alert is
+     * audible, or when it is stopped without ever starting.
+     */
+    @Override
+    public void playAudio(String audioPath, boolean isCustom, int duration, long scheduledAtMillis, Runnable onStarted) {
+        handler.post(() -> doPlay(audioPath, isCustom, duration, scheduledAtMillis, onStarted));
+    }
+
+    @Override
+    public void stopAudio() {
+        handler.post(this::doStop);
+    }
+
+    /**
+     * Drops one reference; the last one stops playback and frees the players.
+     */
+    @Override
+    public void release() {
+        synchronized (SignalAudioManager.class) {
+            if (instance != this || --refCount > 0) {
+                return;
+            }
+            instance = null;
+        }
+
+        handler.post(() -> {
+            doStop();
+            lowLatencyPlayer.release();
+            beepPlayer.release();
+        });
+        audioThread.quitSafely();
+        decodeExecutor.shutdown();
+        // Nothing plays from the cache until the engine is acquired again
+        soundCache.clear();
+    }
+
+    /**
+     * Runs a decode on the decode thread and waits for it. Every decode goes
+     * through that one thread, so a tone already being decoded for a pre-warm
+     * is found in the cache instead of being decoded again.
+     */
+    private PcmDecoder.DecodedSound awaitDecode(Callable<PcmDecoder.DecodedSound> decode) throws IOException {
+        try {
+            return decodeExecutor.submit(decode).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void doPrewarm(long holdMs) {
+        if (state == State.IDLE) {
+            requestAudioFocus();
+            state = State.WARM;
+        }
+        handler.removeCallbacks(prewarmTimeout);
+        handler.postDelayed(prewarmTimeout, holdMs);
+    }
+
+    private void doPlay(String audioPath, boolean isCustom, int duration, long scheduledAtMillis, Runnable onStarted) {
+        if (state == State.WARM) {
+            // Focus and resources are already held from the pre-warm
+            handler.removeCallbacks(prewarmTimeout);
+        } else {
+            doStop(); // Stop any existing audio
+            requestAudioFocus();
+        }
+        state = State.PLAYING;
+        flightRecorder.record(SignalFlightRecorder.EVENT_AUDIO_PLAY, 0, scheduledAtMillis);
+        pendingScheduledAtMillis = scheduledAtMillis;
+        pendingOnStarted = onStarted;
+
         if (isCustom && audioPath != null) {
             playCustomAudio(audioPath, duration);
         } else {
@@ -43,35 +241,78 @@ public class SignalAudioManager implements AudioManager.OnAudioFocusChangeListen
     }
 
     private void playCustomAudio(String audioPath, int duration) {
+        if (playPreparedAudio(audioPath, duration)) {
+            return;
+        }
+        playMediaPlayerAudio(audioPath, duration);
+    }
+
+    private boolean playPreparedAudio(String audioPath, int duration) {
+        PcmDecoder.DecodedSound sound = soundCache.peek(audioPath);
+        if (sound == null) {
+            // Never decode on this thread; MediaPlayer plays this one and the next one is cached
+            decodeExecutor.execute(() -> {
+                try {
+                    soundCache.load(context, audioPath);
+                } catch (IOException e) {
+                    Log.e(TAG, "Failed to decode custom audio", e);
+                }
+            });
+            return false;
+        }
+        try {
+            lowLatencyPlayer.prepare(sound);
+            lowLatencyPlayer.setVolume(1.0f);
+            lowLatencyPlayer.start(-1);
+            SignalLog.d(TAG, "Custom audio started (low latency)");
+
+            // Stop after duration
+            handler.postDelayed(stopTimer, duration);
+            return true;
+
+        } catch (Exception e) {
+            Log.e(TAG, "Low latency playback unavailable, falling back to MediaPlayer", e);
+            return false;
+        }
+    }
+
+    private void playMediaPlayerAudio(String audioPath, int duration) {
         try {
+            // Created on the audio thread, so its callbacks arrive here too
             mediaPlayer = new MediaPlayer();
             mediaPlayer.setDataSource(context, Uri.parse(audioPath));
-            
+
             AudioAttributes audioAttributes = new AudioAttributes.Builder()
                 .setUsage(AudioAttributes.USAGE_ALARM)
                 .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
                 .build();
             mediaPlayer.setAudioAttributes(audioAttributes);
-            
+
             mediaPlayer.setLooping(true);
             mediaPlayer.setVolume(1.0f, 1.0f);
-            
+
             mediaPlayer.setOnPreparedListener(mp -> {
+                if (mp != mediaPlayer) {
+                    return; // Stopped while preparing
+                }
                 mp.start();
-                Log.d(TAG, "Custom audio started");
-                
+                onFirstSample(clock.currentTimeMillis());
+                SignalLog.d(TAG, "Custom audio started");
+
                 // Stop after duration
-                handler.postDelayed(() -> stopAudio(), duration);
+                handler.postDelayed(stopTimer, duration);
             });
-            
+
             mediaPlayer.setOnErrorListener((mp, what, extra) -> {
                 Log.e(TAG, "MediaPlayer error: " + what + ", " + extra);
-                playDefaultBeep(duration); // Fallback to beep
+                if (mp == mediaPlayer) {
+                    playDefaultBeep(duration); // Fallback to beep
+                }
                 return true;
             });
-            
+
             mediaPlayer.prepareAsync();
-            
+
         } catch (IOException e) {
             Log.e(TAG, "Error playing custom audio", e);
             playDefaultBeep(duration); // Fallback to beep
@@ -80,36 +321,36 @@ public class SignalAudioManager implements AudioManager.OnAudioFocusChangeListen
 
     private void playDefaultBeep(int duration) {
         try {
-            // Use ToneGenerator for reliable beep
-            toneGenerator = new ToneGenerator(AudioManager.STREAM_ALARM, 100);
-            
-            // Play beep pattern: beep for 500ms, pause 200ms, repeat
-            playBeepPattern(duration);
-            
-            Log.d(TAG, "Default beep started");
-            
+            // Beep pattern is synthesized once and looped by the track itself,
+            // so the cadence does not depend on any Handler timing
+            int periods = BeepSynthesizer.periodsFor(duration);
+            beepPlayer.prepare(BeepSynthesizer.beepPeriod());
+            beepPlayer.setVolume(1.0f);
+            beepPlayer.start(periods - 1);
+
+            // Release focus once the pattern has played out
+            handler.postDelayed(stopTimer, (long) periods * BeepSynthesizer.PERIOD_MS);
+
+            SignalLog.d(TAG, "Default beep started");
+
         } catch (Exception e) {
             Log.e(TAG, "Error playing default beep", e);
         }
     }
 
-    private void playBeepPattern(int remainingDuration) {
-        if (remainingDuration <= 0 || toneGenerator == null) {
-            return;
+    private void doStop() {
+        handler.removeCallbacks(stopTimer);
+        handler.removeCallbacks(prewarmTimeout);
+        if (state != State.IDLE) {
+            abandonAudioFocus();
         }
-        
-        toneGenerator.startTone(ToneGenerator.TONE_CDMA_ALERT_CALL_GUARD, 500);
-        
-        handler.postDelayed(() -> {
-            if (toneGenerator != null) {
-                playBeepPattern(remainingDuration - 700); // 500ms beep + 200ms pause
-            }
-        }, 700);
-    }
+        boolean wasPlaying = state == State.PLAYING;
+        state = State.IDLE;
+
+        // Keep the prepared tracks around for the next alert
+        lowLatencyPlayer.stop();
+        beepPlayer.stop();
 
-    public void stopAudio() {
-        abandonAudioFocus();
-        
         if (mediaPlayer != null) {
             try {
                 if (mediaPlayer.isPlaying()) {
@@ -121,17 +362,48 @@ public class SignalAudioManager implements AudioManager.OnAudioFocusChangeListen
             }
             mediaPlayer = null;
         }
-        
-        if (toneGenerator != null) {
-            try {
-                toneGenerator.release();
-            } catch (Exception e) {
-                Log.e(TAG, "Error stopping ToneGenerator", e);
-            }
-            toneGenerator = null;
+
+        runOnStarted();
+        if (wasPlaying) {
+            flightRecorder.record(SignalFlightRecorder.EVENT_AUDIO_STOPPED, 0, 0);
+            SignalEventBus.getInstance().emit(SignalEventBus.EVENT_AUDIO_STOPPED, new JSObject());
+        }
+        SignalLog.d(TAG, "Audio stopped");
+    }
+
+    private void onFirstSample(long firstSampleAtMillis) {
+        flightRecorder.record(SignalFlightRecorder.EVENT_AUDIO_FIRST_SAMPLE, 0,
+            pendingScheduledAtMillis > 0 ? firstSampleAtMillis - pendingScheduledAtMillis : -1);
+        JSObject event = new JSObject();
+        event.put("firstSampleAt", firstSampleAtMillis);
+        if (pendingScheduledAtMillis > 0) {
+            TriggerTimingStats.getInstance().recordFirstSample(pendingScheduledAtMillis, firstSampleAtMillis);
+            event.put("scheduledAt", pendingScheduledAtMillis);
+            event.put("latencyMs", firstSampleAtMillis - pendingScheduledAtMillis);
+            pendingScheduledAtMillis = 0;
+        }
+        runOnStarted();
+        SignalEventBus.getInstance().emit(SignalEventBus.EVENT_AUDIO_STARTED, event);
+    }
+
+    private void runOnStarted() {
+        Runnable onStarted = pendingOnStarted;
+        pendingOnStarted = null;
+        if (onStarted != null) {
+            onStarted.run();
+        }
+    }
+
+    private void prepareQuietly(LowLatencyAudioPlayer player, PcmDecoder.DecodedSound sound) {
+        // Never swap the buffer under an alert that is already sounding
+        if (player.isPlaying()) {
+            return;
+        }
+        try {
+            player.prepare(sound);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to prepare track", e);
         }
-        
-        Log.d(TAG, "Audio stopped");
     }
 
     private void requestAudioFocus() {
@@ -140,12 +412,12 @@ public class SignalAudioManager implements AudioManager.OnAudioFocusChangeListen
                 .setUsage(AudioAttributes.USAGE_ALARM)
                 .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
                 .build();
-                
+
             audioFocusRequest = new AudioFocusRequest.Builder(AudioManager.AUDIOFOCUS_GAIN_TRANSIENT_MAY_DUCK)
                 .setAudioAttributes(audioAttributes)
                 .setOnAudioFocusChangeListener(this, handler)
                 .build();
-                
+
             audioManager.requestAudioFocus(audioFocusRequest);
         } else {
             audioManager.requestAudioFocus(this, AudioManager.STREAM_ALARM, AudioManager.AUDIOFOCUS_GAIN_TRANSIENT_MAY_DUCK);
@@ -163,6 +435,12 @@ public class SignalAudioManager implements AudioManager.OnAudioFocusChangeListen
 
     @Override
     public void onAudioFocusChange(int focusChange) {
+        // Pre-O listeners are called on the main thread; hop over if needed
+        if (Thread.currentThread() != audioThread) {
+            handler.post(() -> onAudioFocusChange(focusChange));
+            return;
+        }
+
         switch (focusChange) {
             case AudioManager.AUDIOFOCUS_LOSS:
             case AudioManager.AUDIOFOCUS_LOSS_TRANSIENT:
@@ -170,16 +448,24 @@ public class SignalAudioManager implements AudioManager.OnAudioFocusChangeListen
                 break;
             case AudioManager.AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK:
                 // Lower volume if needed, but keep playing
-                if (mediaPlayer != null && mediaPlayer.isPlaying()) {
-                    mediaPlayer.setVolume(0.3f, 0.3f);
-                }
+                setVolume(0.3f);
                 break;
             case AudioManager.AUDIOFOCUS_GAIN:
                 // Restore full volume
-                if (mediaPlayer != null && mediaPlayer.isPlaying()) {
-                    mediaPlayer.setVolume(1.0f, 1.0f);
-                }
+                setVolume(1.0f);
                 break;
         }
     }
+
+    private void setVolume(float volume) {
+        if (mediaPlayer != null && mediaPlayer.isPlaying()) {
+            mediaPlayer.setVolume(volume, volume);
+        }
+        if (lowLatencyPlayer.isPlaying()) {
+            lowLatencyPlayer.setVolume(volume);
+        }
+        if (beepPlayer.isPlaying()) {
+            beepPlayer.setVolume(volume);
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package com.androidsignalplugin;
+
+import com.getcapacitor.JSObject;
+
+/**
+ * Process-wide stream of native events for the JS layer. While no listener is
+ * attached (WebView paused or not yet created) events are kept in a bounded
+ * ring, oldest dropped first, and replayed in order on the next attach.
+ */
+public class SignalEventBus {
+    public static final String EVENT_SIGNAL_TRIGGERED = "signalTriggered";
+    public static final String EVENT_AUDIO_STARTED = "audioStarted";
+    public static final String EVENT_AUDIO_STOPPED = "audioStopped";
+    public static final String EVENT_ALARM_MISSED = "alarmMissed";
+    public static final String EVENT_SCHEDULE_CHANGED = "scheduleChanged";
+
+    public interface Listener {
+        void onEvent(String name, JSObject data);
+    }
+
+    private static final int CAPACITY = 64;
+
+    private static final SignalEventBus INSTANCE = new SignalEventBus();
+
+    private final String[] names = new String[CAPACITY];
+    private final JSObject[] payloads = new JSObject[CAPACITY];
+    private int head;
+    private int count;
+    private int dropped;
+    private Listener listener;
+
+    public static SignalEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    private SignalEventBus() {
+    }
+
+    /**
+     * Emits an event; {@code data} gets a {@code timestamp} and must not be
+     * modified afterwards. Delivery happens under the bus lock so replayed and
+     * live events reach JS in order.
+     */
+    public synchronized void emit(String name, JSObject data) {
+        data.put("timestamp", SignalRuntime.clock().currentTimeMillis());
+        if (listener == null) {
+            buffer(name, data);
+            return;
+        }
+        listener.onEvent(name, data);
+    }
+
+    /**
+     * Attaches the listener and replays everything buffered while detached.
+     */
+    public synchronized void attach(Listener newListener) {
+        listener = newListener;
+        for (int i = 0; i < count; i++) {
+            int slot = (head + i) % CAPACITY;
+            JSObject data = payloads[slot];
+            data.put("buffered", true);
+            if (i == 0 && dropped > 0) {
+                data.put("droppedBefore", dropped);
+            }
+            newListener.onEvent(names[slot], data);
+            names[slot] = null;
+            payloads[slot] = null;
+        }
+        head = 0;
+        count = 0;
+        dropped = 0;
+    }
+
+    public synchronized void detach(Listener oldListener) {
+        if (listener == oldListener) {
+            listener = null;
+        }
+    }
+
+    private void buffer(String name, JSObject data) {
+        int slot = (head + count) % CAPACITY;
+        if (count == CAPACITY) {
+            // Full: overwrite the oldest
+            head = (head + 1) % CAPACITY;
+            dropped++;
+        } else {
+            count++;
+        }
+        names[slot] = name;
+        payloads[slot] = data;
+    }
+}
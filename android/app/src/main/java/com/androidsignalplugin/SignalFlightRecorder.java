@@ -0,0 +1,163 @@
+package com.androidsignalplugin;
+
+import android.util.Log;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Always-on record of the last few thousand trigger path events, kept in a
+ * memory-mapped ring file so it outlives the process that wrote it.
+ *
+ * Writers claim a slot with a single atomic increment and fill it with
+ * absolute puts: no lock and no allocation. A slot's sequence number is
+ * written last, so a reader can skip records torn by a concurrent writer or
+ * by process death.
+ */
+public class SignalFlightRecorder {
+    private static final String TAG = "SignalFlightRecorder";
+    private static final String FILE_NAME = "signal_flight_recorder.bin";
+
+    public static final int EVENT_ALARM_ARMED = 1;
+    public static final int EVENT_ALARM_RECEIVED = 2;
+    public static final int EVENT_PREWARM = 3;
+    public static final int EVENT_DENSE_FIRED = 4;
+    public static final int EVENT_SERVICE_TRIGGER = 5;
+    public static final int EVENT_TRIGGER_STALE = 6;
+    public static final int EVENT_AUDIO_PLAY = 7;
+    public static final int EVENT_AUDIO_FIRST_SAMPLE = 8;
+    public static final int EVENT_AUDIO_STOPPED = 9;
+
+    private static final String[] EVENT_NAMES = {
+        "unknown",
+        "alarmArmed",
+        "alarmReceived",
+        "prewarm",
+        "denseFired",
+        "serviceTrigger",
+        "triggerStale",
+        "audioPlay",
+        "audioFirstSample",
+        "audioStopped"
+    };
+
+    public static final int CAPACITY = 4096;
+
+    // Header: magic, version, capacity, reserved
+    private static final int MAGIC = 0x53464c52; // "SFLR"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    // Record: sequence + 1 (0 = empty), time, event, alarm id, value
+    private static final int RECORD_BYTES = 32;
+
+    private static SignalFlightRecorder instance;
+
+    private final ByteBuffer buffer;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public static synchronized SignalFlightRecorder getInstance(File directory) {
+        if (instance == null) {
+            instance = new SignalFlightRecorder(directory);
+        }
+        return instance;
+    }
+
+    private SignalFlightRecorder(File directory) {
+        int size = HEADER_BYTES + CAPACITY * RECORD_BYTES;
+        ByteBuffer mapped;
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, FILE_NAME), "rw")) {
+            file.setLength(size);
+            // The mapping stays valid after the channel is closed
+            mapped = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to map flight recorder, keeping it in memory only", e);
+            mapped = ByteBuffer.allocate(size);
+        }
+        buffer = mapped;
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != CAPACITY) {
+            for (int offset = 0; offset < size; offset += 8) {
+                buffer.putLong(offset, 0);
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, CAPACITY);
+        }
+
+        // Continue after the newest record left by a previous process
+        long latest = 0;
+        for (int slot = 0; slot < CAPACITY; slot++) {
+            latest = Math.max(latest, buffer.getLong(HEADER_BYTES + slot * RECORD_BYTES));
+        }
+        nextSequence.set(latest);
+    }
+
+    /**
+     * Appends one event. Safe to call from any thread; never blocks or
+     * allocates.
+     */
+    public void record(int event, int alarmId, long value) {
+        long sequence = nextSequence.getAndIncrement();
+        int offset = HEADER_BYTES + (int) (sequence % CAPACITY) * RECORD_BYTES;
+        buffer.putLong(offset, 0);
+        buffer.putLong(offset + 8, SignalRuntime.clock().currentTimeMillis());
+        buffer.putInt(offset + 16, event);
+        buffer.putInt(offset + 20, alarmId);
+        buffer.putLong(offset + 24, value);
+        buffer.putLong(offset, sequence + 1);
+    }
+
+    public static String eventName(int event) {
+        return event > 0 && event < EVENT_NAMES.length ? EVENT_NAMES[event] : EVENT_NAMES[0];
+    }
+
+    /**
+     * Snapshot of the ring, oldest first. Not for the trigger path.
+     */
+    public JSObject toJSObject() {
+        List<long[]> records = new ArrayList<>();
+        for (int slot = 0; slot < CAPACITY; slot++) {
+            int offset = HEADER_BYTES + slot * RECORD_BYTES;
+            long sequence = buffer.getLong(offset);
+            long[] record = {
+                sequence,
+                buffer.getLong(offset + 8),
+                buffer.getInt(offset + 16),
+                buffer.getInt(offset + 20),
+                buffer.getLong(offset + 24)
+            };
+            if (sequence != 0 && buffer.getLong(offset) == sequence) {
+                records.add(record);
+            }
+        }
+        Collections.sort(records, (a, b) -> Long.compare(a[0], b[0]));
+
+        JSArray events = new JSArray();
+        for (long[] record : records) {
+            JSObject event = new JSObject();
+            event.put("seq", record[0]);
+            event.put("time", record[1]);
+            event.put("event", eventName((int) record[2]));
+            event.put("alarmId", (int) record[3]);
+            event.put("value", record[4]);
+            events.put(event);
+        }
+
+        JSObject result = new JSObject();
+        result.put("capacity", CAPACITY);
+        result.put("recorded", nextSequence.get());
+        result.put("events", events);
+        return result;
+    }
+}
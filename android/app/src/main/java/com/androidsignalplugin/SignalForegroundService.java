@@ -8,22 +8,67 @@ import android.app.Service;
 import android.content.Intent;
 import android.os.Build;
 import android.os.IBinder;
-import android.util.Log;
+import android.os.PowerManager;
 import androidx.core.app.NotificationCompat;
 
+import com.androidsignalplugin.core.AudioSink;
+import com.androidsignalplugin.core.Clock;
+import com.androidsignalplugin.core.LateFirePolicy;
+import com.androidsignalplugin.core.ScheduleEngine;
+import com.androidsignalplugin.core.SignalRecord;
+import com.androidsignalplugin.core.TimelineEntry;
+import com.androidsignalplugin.core.TriggerVerdict;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
 public class SignalForegroundService extends Service {
     private static final String TAG = "SignalForegroundService";
     private static final String CHANNEL_ID = "signal_foreground_service";
     private static final int NOTIFICATION_ID = 1;
+
+    public static final String ACTION_PREWARM_AUDIO = "PREWARM_AUDIO";
+    // Sent by configureAlert so a running service picks up a new dense horizon
+    public static final String ACTION_UPDATE_DENSE_MODE = "UPDATE_DENSE_MODE";
+
+    // Extra time the warmed pipeline is held past the expected trigger
+    private static final long PREWARM_GRACE_MS = 10000;
+
+    // Extra time the dense-mode wake lock is held past the next in-process trigger
+    private static final long DENSE_WAKE_GRACE_MS = 5000;
+
+    private static volatile boolean running;
     
-    private SignalAudioManager audioManager;
+    private Clock clock;
+    private AudioSink audioSink;
+    private SignalAlertSettings settings;
+    private SignalFlightRecorder flightRecorder;
+    private SignalAlertNotifications alertNotifications;
+    private PowerManager.WakeLock prewarmWakeLock;
+    // Fires a pre-warmed trigger at its time; the alarm that woke us came early
+    private DenseTriggerTimer prewarmTimer;
+    private volatile boolean foregroundStarted;
+
+    // Dense mode: this service fires triggers within the horizon from its own timer
+    private final ScheduleEngine.TriggerOwner denseOwner = this::scheduleDenseTrigger;
+    // Written on the main thread, read by the engine thread in scheduleDenseTrigger
+    private volatile DenseTriggerTimer denseTimer;
+    private volatile PowerManager.WakeLock denseWakeLock;
+    private volatile long denseHorizonMs;
 
     @Override
     public void onCreate() {
         super.onCreate();
-        audioManager = new SignalAudioManager(this);
+        clock = SignalRuntime.clock();
+        audioSink = SignalRuntime.acquireAudioSink(this);
+        settings = new SignalAlertSettings(this);
+        flightRecorder = SignalFlightRecorder.getInstance(getFilesDir());
+        alertNotifications = SignalAlertNotifications.getInstance(this);
         createNotificationChannel();
-        Log.d(TAG, "Foreground service created");
+        running = true;
+        SignalLog.d(TAG, "Foreground service created");
     }
 
     @Override
@@ -31,15 +76,30 @@ public class SignalForegroundService extends Service {
         String action = intent != null ? intent.getAction() : null;
         
         if ("TRIGGER_SIGNAL".equals(action)) {
-            // Handle signal trigger
-            String signalData = intent.getStringExtra("signalData");
-            int alarmId = intent.getIntExtra("alarmId", 0);
-            
-            Log.d(TAG, "Signal triggered: " + signalData);
-            
-            // Play audio for signal
-            audioManager.playAudio(null, false, 10000);
+            // Handle signal trigger; coalesced signals arrive together
+            long[] signalMetas = intent.getLongArrayExtra("signalMetas");
+            long[] signalAts = intent.getLongArrayExtra("signalAts");
+            int[] alarmIds = intent.getIntArrayExtra("alarmIds");
+            long[] triggerAts = intent.getLongArrayExtra("triggerAts");
+            List<TimelineEntry> group = new ArrayList<>();
+            for (int i = 0; signalMetas != null && signalAts != null && alarmIds != null && triggerAts != null
+                && i < signalMetas.length; i++) {
+                group.add(new TimelineEntry(
+                    alarmIds[i],
+                    triggerAts[i],
+                    SignalRecord.unpack(signalMetas[i], signalAts[i])
+                ));
+            }
+            triggerSignals(group, intent.getIntExtra(TriggerWakeLock.EXTRA_TOKEN, 0));
             
+        } else if (ACTION_UPDATE_DENSE_MODE.equals(action)) {
+            updateDenseMode();
+
+        } else if (ACTION_PREWARM_AUDIO.equals(action)) {
+            ensureForeground();
+            prewarm(intent.getLongExtra("triggerAt", 0));
+            TriggerWakeLock.release(intent.getIntExtra(TriggerWakeLock.EXTRA_TOKEN, 0));
+
         } else {
             // Regular foreground service start
             String title = intent != null ? intent.getStringExtra("title") : "Signal Alerts Running";
@@ -47,13 +107,220 @@ public class SignalForegroundService extends Service {
             
             Notification notification = createNotification(title, text);
             startForeground(NOTIFICATION_ID, notification);
+            foregroundStarted = true;
             
-            Log.d(TAG, "Foreground service started");
+            SignalLog.d(TAG, "Foreground service started");
+
+            if (intent == null) {
+                // Restarted after process death: rebuild the schedule from disk
+                SignalScheduleEngine.getInstance(this).ensureArmed();
+            }
+            updateDenseMode();
         }
         
         return START_STICKY; // Restart if killed
     }
 
+    /**
+     * Whether the service is currently created in this process.
+     */
+    public static boolean isRunning() {
+        return running;
+    }
+
+    private void prewarm(long triggerAtMillis) {
+        long delayMs = Math.max(0, triggerAtMillis - clock.currentTimeMillis());
+        long holdMs = delayMs + PREWARM_GRACE_MS;
+
+        // Keep the CPU up until the trigger fires from our own timer
+        if (prewarmWakeLock == null) {
+            PowerManager powerManager = (PowerManager) getSystemService(POWER_SERVICE);
+            prewarmWakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, "SignalAlerts:prewarm");
+            prewarmWakeLock.setReferenceCounted(false);
+        }
+        prewarmWakeLock.acquire(holdMs);
+
+        audioSink.prewarm(settings.getAlertAudioPath(), holdMs);
+        if (prewarmTimer == null) {
+            prewarmTimer = new DenseTriggerTimer(clock, this::onPrewarmedTriggerDue);
+        }
+        prewarmTimer.setNext(clock.elapsedRealtime() + delayMs);
+        SignalLog.d(TAG, "Audio pipeline pre-warmed, trigger in {} ms", delayMs);
+    }
+
+    private void onPrewarmedTriggerDue() {
+        long now = clock.currentTimeMillis();
+        List<List<TimelineEntry>> groups = SignalScheduleEngine.getInstance(this).onAlarmFired(now);
+        if (groups.isEmpty()) {
+            // Already fired through the fallback alarm or dense mode
+            releasePrewarmWakeLock();
+            return;
+        }
+        for (List<TimelineEntry> group : groups) {
+            TriggerTimingStats.getInstance().recordInProcess(group.get(0).triggerAtMillis, now);
+            triggerSignals(group, 0);
+        }
+    }
+
+    private void triggerSignals(List<TimelineEntry> group, int wakeLockToken) {
+        long now = clock.currentTimeMillis();
+        int firstId = group.isEmpty() ? 0 : group.get(0).id;
+        long scheduledAt = group.isEmpty() ? 0 : group.get(0).triggerAtMillis;
+        flightRecorder.record(SignalFlightRecorder.EVENT_SERVICE_TRIGGER, firstId, now - scheduledAt);
+        TriggerTimingStats.getInstance().recordService(scheduledAt, now);
+
+        // Each entry is judged on its own trigger time; only the expired ones are suppressed
+        TriggerVerdict verdict = new TriggerVerdict(group, now, settings.getLateToleranceMs(), settings.getStaleToleranceMs());
+        for (int i = 0; i < group.size(); i++) {
+            TriggerTimingStats.getInstance().recordClassification(verdict.classificationAt(i));
+        }
+        List<TimelineEntry> live = verdict.live;
+        List<TimelineEntry> stale = verdict.stale;
+        int classification = verdict.getClassification();
+
+        ensureForeground();
+        if (!stale.isEmpty()) {
+            // Expired signals are reported as missed instead of sounded
+            long staleAt = stale.get(0).triggerAtMillis;
+            flightRecorder.record(SignalFlightRecorder.EVENT_TRIGGER_STALE, stale.get(0).id, now - staleAt);
+            SignalLog.w(TAG, "Stale triggers suppressed: {}, first {} ms late", stale.size(), now - staleAt);
+            emitSignalEvent(stale, staleAt, now, LateFirePolicy.STALE);
+            if (live.isEmpty()) {
+                alertNotifications.show(stale, LateFirePolicy.STALE, now - staleAt);
+            }
+        }
+        if (live.isEmpty()) {
+            TriggerWakeLock.release(wakeLockToken);
+            releasePrewarmWakeLock();
+            return;
+        }
+
+        long liveAt = live.get(0).triggerAtMillis;
+        // Pre-built by the engine for on-time single signals, so usually just a post
+        alertNotifications.show(live, classification, now - liveAt);
+        SignalLog.d(TAG, "Signals triggered: {}", live.size());
+        emitSignalEvent(live, liveAt, now, classification);
+
+        // Play audio once for the live entries; the receiver's wake lock is held until it sounds
+        String audioPath = settings.getAlertAudioPath();
+        audioSink.playAudio(audioPath, audioPath != null, settings.getAlertDurationMs(), liveAt,
+            () -> TriggerWakeLock.release(wakeLockToken));
+        releasePrewarmWakeLock();
+    }
+
+    private void updateDenseMode() {
+        long horizonMs = settings.getDenseHorizonMs();
+        if (horizonMs <= 0) {
+            stopDenseMode();
+            return;
+        }
+        if (denseTimer == null) {
+            PowerManager powerManager = (PowerManager) getSystemService(POWER_SERVICE);
+            denseWakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, "SignalAlerts:dense");
+            denseWakeLock.setReferenceCounted(false);
+            // Published last, so the engine thread never sees a timer without its wake lock
+            denseTimer = new DenseTriggerTimer(clock, this::onDenseTriggerDue);
+        }
+        if (horizonMs != denseHorizonMs) {
+            denseHorizonMs = horizonMs;
+            SignalScheduleEngine.getInstance(this).attachOwner(denseOwner, horizonMs);
+            SignalLog.d(TAG, "Dense mode on, horizon {} ms", horizonMs);
+        }
+    }
+
+    private void stopDenseMode() {
+        if (denseTimer == null) {
+            return;
+        }
+        // Hand the whole timeline back to AlarmManager
+        SignalScheduleEngine.getInstance(this).detachOwner(denseOwner);
+        denseTimer.quit();
+        denseTimer = null;
+        denseHorizonMs = 0;
+        if (denseWakeLock.isHeld()) {
+            denseWakeLock.release();
+        }
+        SignalLog.d(TAG, "Dense mode off");
+    }
+
+    private void scheduleDenseTrigger(long triggerAtMillis) {
+        // Called by the engine with its lock held; only touches the timer and wake lock
+        DenseTriggerTimer timer = denseTimer;
+        if (timer == null) {
+            return;
+        }
+        long delayMs = Math.max(0, triggerAtMillis - clock.currentTimeMillis());
+        timer.setNext(triggerAtMillis < 0 ? -1 : clock.elapsedRealtime() + delayMs);
+
+        // Within the horizon the CPU must stay up for the timer; beyond it AlarmManager wakes us
+        if (triggerAtMillis >= 0 && delayMs <= denseHorizonMs) {
+            denseWakeLock.acquire(delayMs + DENSE_WAKE_GRACE_MS);
+        } else if (denseWakeLock.isHeld()) {
+            denseWakeLock.release();
+        }
+    }
+
+    private void onDenseTriggerDue() {
+        long now = clock.currentTimeMillis();
+        // Empty when AlarmManager already delivered them
+        for (List<TimelineEntry> group : SignalScheduleEngine.getInstance(this).onAlarmFired(now)) {
+            long scheduledAt = group.get(0).triggerAtMillis;
+            flightRecorder.record(SignalFlightRecorder.EVENT_DENSE_FIRED, group.get(0).id, now - scheduledAt);
+            TriggerTimingStats.getInstance().recordInProcess(scheduledAt, now);
+            triggerSignals(group, 0);
+        }
+    }
+
+    private void emitSignalEvent(List<TimelineEntry> group, long scheduledAt, long firedAt, int classification) {
+        SignalSymbolTable symbols = SignalSymbolTable.getInstance(getFilesDir());
+        JSArray signals = new JSArray();
+        for (TimelineEntry entry : group) {
+            JSObject signal = new JSObject();
+            signal.put("id", entry.id);
+            signal.put("asset", symbols.lookup(entry.record.assetId));
+            signal.put("timeframe", symbols.lookup(entry.record.timeframeId));
+            signal.put("direction", entry.record.directionName());
+            signal.put("signalAt", entry.record.signalAtMillis);
+            signal.put("triggerAt", entry.triggerAtMillis);
+            signals.put(signal);
+        }
+
+        JSObject event = new JSObject();
+        event.put("scheduledAt", scheduledAt);
+        event.put("firedAt", firedAt);
+        event.put("signals", signals);
+        event.put("classification", LateFirePolicy.name(classification));
+        event.put("latenessMs", firedAt - scheduledAt);
+        SignalEventBus.getInstance().emit(
+            classification == LateFirePolicy.STALE ? SignalEventBus.EVENT_ALARM_MISSED : SignalEventBus.EVENT_SIGNAL_TRIGGERED,
+            event
+        );
+    }
+
+    private void releasePrewarmWakeLock() {
+        if (prewarmWakeLock != null && prewarmWakeLock.isHeld()) {
+            prewarmWakeLock.release();
+        }
+    }
+
+    private void ensureForeground() {
+        // Alarm-started services must enter the foreground promptly
+        if (!foregroundStarted) {
+            startForeground(NOTIFICATION_ID, createNotification("Signal Alerts Running", "Monitoring for binary options signals"));
+            foregroundStarted = true;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // Decoded tones are the largest thing we hold; the next alert decodes its tone again
+        if (level == TRIM_MEMORY_RUNNING_CRITICAL || level >= TRIM_MEMORY_BACKGROUND) {
+            SignalLog.w(TAG, "Trimming decoded tones at memory level {}", level);
+            DecodedSoundCache.getInstance().clear();
+        }
+    }
+
     @Override
     public IBinder onBind(Intent intent) {
         return null;
@@ -62,10 +329,16 @@ public class SignalForegroundService extends Service {
     @Override
     public void onDestroy() {
         super.onDestroy();
-        if (audioManager != null) {
-            audioManager.stopAudio();
+        running = false;
+        stopDenseMode();
+        if (prewarmTimer != null) {
+            prewarmTimer.quit();
+        }
+        if (audioSink != null) {
+            audioSink.release();
         }
-        Log.d(TAG, "Foreground service destroyed");
+        releasePrewarmWakeLock();
+        SignalLog.d(TAG, "Foreground service destroyed");
     }
 
     private void createNotificationChannel() {
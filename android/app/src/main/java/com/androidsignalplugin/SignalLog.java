@@ -0,0 +1,197 @@
+package com.androidsignalplugin;
+
+import android.os.Process;
+import android.util.Log;
+
+/**
+ * Logging for the trigger path. Calls below the enabled level return after a
+ * single constant comparison. The rest are queued as a template plus raw arguments, and
+ * a background thread formats them and writes them to logcat. Callers never
+ * build strings, allocate or block on logd.
+ *
+ * Templates use {@code {}} for each argument, in call order. Debug output is
+ * off unless enabled with {@code adb shell setprop log.tag.SignalAlerts DEBUG}
+ * before the process starts.
+ */
+public class SignalLog {
+    private static final String PROPERTY_TAG = "SignalAlerts";
+    private static final int CAPACITY = 256;
+
+    // Argument kinds, two bits per argument in call order
+    private static final int ARG_OBJECT = 1;
+    private static final int ARG_LONG = 2;
+
+    private static final int MIN_LEVEL = Log.isLoggable(PROPERTY_TAG, Log.DEBUG) ? Log.DEBUG : Log.INFO;
+
+    private static final Object lock = new Object();
+    private static final int[] priorities = new int[CAPACITY];
+    private static final String[] tags = new String[CAPACITY];
+    private static final String[] templates = new String[CAPACITY];
+    private static final int[] argKinds = new int[CAPACITY];
+    private static final Object[] objectArgs = new Object[CAPACITY];
+    private static final long[] longArgs0 = new long[CAPACITY];
+    private static final long[] longArgs1 = new long[CAPACITY];
+    private static int head;
+    private static int count;
+    private static int dropped;
+    private static boolean writerWaiting;
+    private static Thread writer;
+
+    private SignalLog() {
+    }
+
+    public static void d(String tag, String message) {
+        if (Log.DEBUG >= MIN_LEVEL) {
+            enqueue(Log.DEBUG, tag, message, 0, null, 0, 0);
+        }
+    }
+
+    public static void d(String tag, String template, long arg) {
+        if (Log.DEBUG >= MIN_LEVEL) {
+            enqueue(Log.DEBUG, tag, template, ARG_LONG, null, arg, 0);
+        }
+    }
+
+    public static void d(String tag, String template, long arg0, long arg1) {
+        if (Log.DEBUG >= MIN_LEVEL) {
+            enqueue(Log.DEBUG, tag, template, ARG_LONG | ARG_LONG << 2, null, arg0, arg1);
+        }
+    }
+
+    public static void d(String tag, String template, Object arg) {
+        if (Log.DEBUG >= MIN_LEVEL) {
+            enqueue(Log.DEBUG, tag, template, ARG_OBJECT, arg, 0, 0);
+        }
+    }
+
+    public static void d(String tag, String template, Object arg0, long arg1) {
+        if (Log.DEBUG >= MIN_LEVEL) {
+            enqueue(Log.DEBUG, tag, template, ARG_OBJECT | ARG_LONG << 2, arg0, arg1, 0);
+        }
+    }
+
+    public static void d(String tag, String template, long arg0, Object arg1) {
+        if (Log.DEBUG >= MIN_LEVEL) {
+            enqueue(Log.DEBUG, tag, template, ARG_LONG | ARG_OBJECT << 2, arg1, arg0, 0);
+        }
+    }
+
+    public static void w(String tag, String message) {
+        if (Log.WARN >= MIN_LEVEL) {
+            enqueue(Log.WARN, tag, message, 0, null, 0, 0);
+        }
+    }
+
+    public static void w(String tag, String template, long arg) {
+        if (Log.WARN >= MIN_LEVEL) {
+            enqueue(Log.WARN, tag, template, ARG_LONG, null, arg, 0);
+        }
+    }
+
+    public static void w(String tag, String template, long arg0, long arg1) {
+        if (Log.WARN >= MIN_LEVEL) {
+            enqueue(Log.WARN, tag, template, ARG_LONG | ARG_LONG << 2, null, arg0, arg1);
+        }
+    }
+
+    public static void w(String tag, String template, Object arg) {
+        if (Log.WARN >= MIN_LEVEL) {
+            enqueue(Log.WARN, tag, template, ARG_OBJECT, arg, 0, 0);
+        }
+    }
+
+    private static void enqueue(int priority, String tag, String template, int kinds, Object objectArg, long longArg0, long longArg1) {
+        synchronized (lock) {
+            if (count == CAPACITY) {
+                dropped++; // Keep what is queued; the writer reports the gap
+                return;
+            }
+            int slot = (head + count) % CAPACITY;
+            priorities[slot] = priority;
+            tags[slot] = tag;
+            templates[slot] = template;
+            argKinds[slot] = kinds;
+            objectArgs[slot] = objectArg;
+            longArgs0[slot] = longArg0;
+            longArgs1[slot] = longArg1;
+            count++;
+
+            if (writer == null) {
+                writer = new Thread(SignalLog::drain, "SignalLog");
+                writer.setDaemon(true);
+                writer.start();
+            } else if (writerWaiting) {
+                lock.notify();
+            }
+        }
+    }
+
+    private static void drain() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        StringBuilder line = new StringBuilder(128);
+        while (true) {
+            int priority;
+            String tag;
+            String template;
+            int kinds;
+            Object objectArg;
+            long longArg0;
+            long longArg1;
+            int lost;
+            synchronized (lock) {
+                while (count == 0) {
+                    writerWaiting = true;
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    } finally {
+                        writerWaiting = false;
+                    }
+                }
+                priority = priorities[head];
+                tag = tags[head];
+                template = templates[head];
+                kinds = argKinds[head];
+                objectArg = objectArgs[head];
+                longArg0 = longArgs0[head];
+                longArg1 = longArgs1[head];
+                tags[head] = null;
+                templates[head] = null;
+                objectArgs[head] = null;
+                head = (head + 1) % CAPACITY;
+                count--;
+                // Drops happened after everything still queued, so report them once it is out
+                lost = count == 0 ? dropped : 0;
+                dropped -= lost;
+            }
+
+            line.setLength(0);
+            format(line, template, kinds, objectArg, longArg0, longArg1);
+            Log.println(priority, tag, line.toString());
+            if (lost > 0) {
+                Log.w(PROPERTY_TAG, lost + " log records dropped");
+            }
+        }
+    }
+
+    private static void format(StringBuilder line, String template, int kinds, Object objectArg, long longArg0, long longArg1) {
+        int start = 0;
+        int longIndex = 0;
+        while (kinds != 0) {
+            int placeholder = template.indexOf("{}", start);
+            if (placeholder < 0) {
+                break;
+            }
+            line.append(template, start, placeholder);
+            if ((kinds & 3) == ARG_OBJECT) {
+                line.append(objectArg);
+            } else {
+                line.append(longIndex++ == 0 ? longArg0 : longArg1);
+            }
+            start = placeholder + 2;
+            kinds >>>= 2;
+        }
+        line.append(template, start, template.length());
+    }
+}
@@ -0,0 +1,53 @@
+package com.androidsignalplugin;
+
+import android.content.Context;
+
+import com.androidsignalplugin.core.AlarmScheduler;
+import com.androidsignalplugin.core.AudioSink;
+import com.androidsignalplugin.core.Clock;
+
+/**
+ * Clock, alarm scheduler and audio sink shared by the plugin, the alarm
+ * receiver and the foreground service. Defaults are the platform ones; a
+ * harness calls {@link #install} before any of them starts (the schedule
+ * engine keeps what it got first) and {@link #reset} afterwards.
+ */
+public class SignalRuntime {
+    private static Clock clock = new AndroidClock();
+    private static AlarmScheduler alarmScheduler;
+    private static AudioSink audioSink;
+
+    private SignalRuntime() {
+    }
+
+    /**
+     * Replaces the defaults. Null arguments keep the platform implementation.
+     */
+    public static synchronized void install(Clock newClock, AlarmScheduler newAlarmScheduler, AudioSink newAudioSink) {
+        clock = newClock != null ? newClock : new AndroidClock();
+        alarmScheduler = newAlarmScheduler;
+        audioSink = newAudioSink;
+    }
+
+    public static void reset() {
+        install(null, null, null);
+    }
+
+    public static synchronized Clock clock() {
+        return clock;
+    }
+
+    public static synchronized AlarmScheduler alarmScheduler(Context context) {
+        if (alarmScheduler == null) {
+            alarmScheduler = new AndroidAlarmScheduler(context.getApplicationContext());
+        }
+        return alarmScheduler;
+    }
+
+    /**
+     * Every call must be balanced by one {@link AudioSink#release()}.
+     */
+    public static synchronized AudioSink acquireAudioSink(Context context) {
+        return audioSink != null ? audioSink : SignalAudioManager.acquire(context);
+    }
+}
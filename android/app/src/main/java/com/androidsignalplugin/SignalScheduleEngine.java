@@ -0,0 +1,67 @@
+package com.androidsignalplugin;
+
+import android.content.Context;
+
+import com.androidsignalplugin.core.ScheduleEngine;
+import com.androidsignalplugin.core.SignalTimelineStore;
+import com.androidsignalplugin.core.TimelineEntry;
+import com.getcapacitor.JSObject;
+
+/**
+ * The process-wide {@link ScheduleEngine}, wired to AlarmManager, the
+ * on-disk timeline and the shared alert settings. SignalAlarmReceiver hands
+ * each fire back here.
+ *
+ * Schedule changes are published on the event bus and keep the next few alert
+ * notifications pre-built; every armed alarm goes to the flight recorder.
+ */
+public class SignalScheduleEngine extends ScheduleEngine {
+    private static final String TAG = "SignalScheduleEngine";
+
+    public static final String ACTION_FIRE_NEXT = "com.androidsignalplugin.FIRE_NEXT_ALARM";
+
+    private static SignalScheduleEngine instance;
+
+    private final SignalFlightRecorder flightRecorder;
+    private final SignalAlertNotifications alertNotifications;
+
+    public static synchronized SignalScheduleEngine getInstance(Context context) {
+        if (instance == null) {
+            instance = new SignalScheduleEngine(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SignalScheduleEngine(Context context) {
+        super(
+            SignalRuntime.clock(),
+            SignalRuntime.alarmScheduler(context),
+            new SignalTimelineStore(context.getFilesDir()),
+            new SignalAlertSettings(context)
+        );
+        this.flightRecorder = SignalFlightRecorder.getInstance(context.getFilesDir());
+        this.alertNotifications = SignalAlertNotifications.getInstance(context);
+
+        if (size() > 0) {
+            SignalLog.d(TAG, "Restored {} pending signals from disk", size());
+        }
+    }
+
+    @Override
+    protected void onScheduleChanged(TimelineEntry next) {
+        JSObject event = new JSObject();
+        event.put("pending", size());
+        event.put("nextTriggerAt", next != null ? next.triggerAtMillis : -1);
+        SignalEventBus.getInstance().emit(SignalEventBus.EVENT_SCHEDULE_CHANGED, event);
+        alertNotifications.prepare(upcoming(SignalAlertNotifications.PREBUILD_COUNT));
+    }
+
+    @Override
+    protected void onArmed(TimelineEntry entry) {
+        if (entry == null) {
+            SignalLog.d(TAG, "Nothing left to arm, chained alarm cancelled");
+        } else {
+            flightRecorder.record(SignalFlightRecorder.EVENT_ALARM_ARMED, entry.id, entry.triggerAtMillis);
+        }
+    }
+}
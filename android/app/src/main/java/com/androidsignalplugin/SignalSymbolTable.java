@@ -0,0 +1,192 @@
+package com.androidsignalplugin;
+
+import android.util.Log;
+
+import com.androidsignalplugin.core.SymbolTable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interned asset and timeframe names. Signals carry small integer ids instead
+ * of strings; the table is appended to disk so ids stay valid across process
+ * restarts and can be resolved by the receiver or service.
+ */
+public class SignalSymbolTable implements SymbolTable {
+    private static final String TAG = "SignalSymbolTable";
+    private static final String FILE_NAME = "signal_symbols.bin";
+
+    public static final int MAX_SYMBOLS = 1 << 24;
+
+    private static SignalSymbolTable instance;
+
+    private final File file;
+    private final List<String> symbols = new ArrayList<>();
+
+    // Open-addressing index of symbol id + 1 (0 = empty slot), probed by char
+    // range so lookups of already-known names never allocate
+    private int[] index = new int[64];
+
+    public static synchronized SignalSymbolTable getInstance(File directory) {
+        if (instance == null) {
+            instance = new SignalSymbolTable(directory);
+        }
+        return instance;
+    }
+
+    private SignalSymbolTable(File directory) {
+        this.file = new File(directory, FILE_NAME);
+        load();
+    }
+
+    @Override
+    public int intern(String symbol) {
+        return intern(symbol, 0, symbol.length());
+    }
+
+    /**
+     * Interns {@code text[start, end)}; a String is only created for a name
+     * the table has not seen before.
+     */
+    @Override
+    public synchronized int intern(CharSequence text, int start, int end) {
+        int slot = find(text, start, end);
+        if (slot < 0) {
+            return index[-slot - 1] - 1;
+        }
+        if (symbols.size() >= MAX_SYMBOLS) {
+            throw new IllegalStateException("Symbol table full");
+        }
+
+        String symbol = text.subSequence(start, end).toString();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            out.writeUTF(symbol);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to persist symbol " + symbol, e);
+        }
+        return add(symbol, slot);
+    }
+
+    /**
+     * Name for {@code id}, or null if it is unknown.
+     */
+    @Override
+    public synchronized String lookup(int id) {
+        return id >= 0 && id < symbols.size() ? symbols.get(id) : null;
+    }
+
+    /**
+     * Returns {@code -(slot + 1)} for a known symbol, else the empty slot
+     * where it would be inserted.
+     */
+    private int find(CharSequence text, int start, int end) {
+        int mask = index.length - 1;
+        for (int slot = hash(text, start, end) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return slot;
+            }
+            if (regionEquals(symbols.get(entry - 1), text, start, end)) {
+                return -(slot + 1);
+            }
+        }
+    }
+
+    private int add(String symbol, int slot) {
+        int id = symbols.size();
+        symbols.add(symbol);
+        index[slot] = id + 1;
+        if (symbols.size() * 2 > index.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        index = new int[index.length * 2];
+        int mask = index.length - 1;
+        for (int id = 0; id < symbols.size(); id++) {
+            String symbol = symbols.get(id);
+            int slot = hash(symbol, 0, symbol.length()) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = id + 1;
+        }
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + text.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean regionEquals(String symbol, CharSequence text, int start, int end) {
+        if (symbol.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                String symbol = in.readUTF();
+                validLength += 2 + utfLength(symbol);
+                int slot = find(symbol, 0, symbol.length());
+                if (slot >= 0) {
+                    add(symbol, slot);
+                }
+            }
+        } catch (EOFException e) {
+            // End of table, possibly in the middle of a torn record
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to read symbol table", e);
+            return;
+        }
+
+        if (validLength < file.length()) {
+            // Cut the torn tail so later appends keep their ids
+            Log.w(TAG, "Torn record at end of symbol table truncated");
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.setLength(validLength);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to truncate symbol table", e);
+            }
+        }
+    }
+
+    /**
+     * Bytes {@link DataOutputStream#writeUTF} uses for {@code symbol}, after
+     * its two-byte length prefix.
+     */
+    private static int utfLength(String symbol) {
+        int length = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,130 @@
+package com.androidsignalplugin;
+
+import com.androidsignalplugin.core.LateFirePolicy;
+import com.androidsignalplugin.core.LatencyHistogram;
+import com.getcapacitor.JSObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide lateness of each trigger stage, measured against the
+ * scheduled trigger time: alarm delivery to SignalAlarmReceiver (or the
+ * service's own timer, for dense mode and pre-warmed triggers), service
+ * start, and the first audible sample.
+ */
+public class TriggerTimingStats {
+    private static final TriggerTimingStats INSTANCE = new TriggerTimingStats();
+
+    private final LatencyHistogram receiverLateness = new LatencyHistogram();
+    private final LatencyHistogram inProcessLateness = new LatencyHistogram();
+    private final LatencyHistogram serviceLateness = new LatencyHistogram();
+    private final LatencyHistogram firstSampleLateness = new LatencyHistogram();
+    private final LatencyHistogram wakeLockHeld = new LatencyHistogram();
+    private final AtomicLong wakeLockTimeouts = new AtomicLong();
+    private final AtomicLong onTimeCount = new AtomicLong();
+    private final AtomicLong lateCount = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+
+    public static TriggerTimingStats getInstance() {
+        return INSTANCE;
+    }
+
+    private TriggerTimingStats() {
+    }
+
+    public void recordReceiver(long scheduledAtMillis, long receivedAtMillis) {
+        if (scheduledAtMillis > 0) {
+            receiverLateness.record(receivedAtMillis - scheduledAtMillis);
+        }
+    }
+
+    /**
+     * A trigger fired by the foreground service's own timer instead of an
+     * alarm delivery.
+     */
+    public void recordInProcess(long scheduledAtMillis, long firedAtMillis) {
+        if (scheduledAtMillis > 0) {
+            inProcessLateness.record(firedAtMillis - scheduledAtMillis);
+        }
+    }
+
+    public void recordService(long scheduledAtMillis, long startedAtMillis) {
+        if (scheduledAtMillis > 0) {
+            serviceLateness.record(startedAtMillis - scheduledAtMillis);
+        }
+    }
+
+    public void recordFirstSample(long scheduledAtMillis, long firstSampleAtMillis) {
+        if (scheduledAtMillis > 0) {
+            firstSampleLateness.record(firstSampleAtMillis - scheduledAtMillis);
+        }
+    }
+
+    /**
+     * How long a trigger's wake lock was held; a timeout means audio never
+     * reported starting before it expired.
+     */
+    public void recordWakeLockHeld(long heldMs, boolean timedOut) {
+        wakeLockHeld.record(heldMs);
+        if (timedOut) {
+            wakeLockTimeouts.incrementAndGet();
+        }
+    }
+
+    public void recordClassification(int classification) {
+        switch (classification) {
+            case LateFirePolicy.LATE:
+                lateCount.incrementAndGet();
+                break;
+            case LateFirePolicy.STALE:
+                staleCount.incrementAndGet();
+                break;
+            default:
+                onTimeCount.incrementAndGet();
+                break;
+        }
+    }
+
+    public void reset() {
+        receiverLateness.reset();
+        inProcessLateness.reset();
+        serviceLateness.reset();
+        firstSampleLateness.reset();
+        wakeLockHeld.reset();
+        wakeLockTimeouts.set(0);
+        onTimeCount.set(0);
+        lateCount.set(0);
+        staleCount.set(0);
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("receiver", summarize(receiverLateness));
+        result.put("inProcess", summarize(inProcessLateness));
+        result.put("service", summarize(serviceLateness));
+        result.put("firstSample", summarize(firstSampleLateness));
+
+        JSObject wakeLock = summarize(wakeLockHeld);
+        wakeLock.put("timeouts", wakeLockTimeouts.get());
+        result.put("wakeLock", wakeLock);
+
+        JSObject triggers = new JSObject();
+        triggers.put("onTime", onTimeCount.get());
+        triggers.put("late", lateCount.get());
+        triggers.put("stale", staleCount.get());
+        result.put("triggers", triggers);
+        return result;
+    }
+
+    private static JSObject summarize(LatencyHistogram histogram) {
+        JSObject summary = new JSObject();
+        summary.put("count", histogram.getCount());
+        summary.put("min", histogram.getMin());
+        summary.put("mean", Math.round(histogram.getMean()));
+        summary.put("p50", histogram.getPercentile(50));
+        summary.put("p90", histogram.getPercentile(90));
+        summary.put("p99", histogram.getPercentile(99));
+        summary.put("max", histogram.getMax());
+        return summary;
+    }
+}
@@ -0,0 +1,74 @@
+package com.androidsignalplugin;
+
+import android.content.Context;
+import android.os.PowerManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Partial wake lock taken in SignalAlarmReceiver and handed to
+ * SignalForegroundService by token, so the CPU cannot suspend between the
+ * broadcast returning and the alert becoming audible. Released once the
+ * first sample plays, or by the timeout if that never happens.
+ */
+public class TriggerWakeLock {
+    public static final String EXTRA_TOKEN = "wakeLockToken";
+
+    // Upper bound on how long a trigger may keep the CPU awake
+    static final long TIMEOUT_MS = 20000;
+
+    private static final Map<Integer, HeldLock> held = new HashMap<>();
+    private static int nextToken = 1;
+
+    private TriggerWakeLock() {
+    }
+
+    public static synchronized int acquire(Context context) {
+        sweepExpired();
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        PowerManager.WakeLock wakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, "SignalAlerts:trigger");
+        wakeLock.setReferenceCounted(false);
+        wakeLock.acquire(TIMEOUT_MS);
+
+        int token = nextToken++;
+        held.put(token, new HeldLock(wakeLock, SignalRuntime.clock().elapsedRealtime()));
+        return token;
+    }
+
+    public static synchronized void release(int token) {
+        HeldLock lock = held.remove(token);
+        if (lock == null) {
+            return; // Already released, or taken by a previous process
+        }
+        if (lock.wakeLock.isHeld()) {
+            lock.wakeLock.release();
+            TriggerTimingStats.getInstance().recordWakeLockHeld(SignalRuntime.clock().elapsedRealtime() - lock.acquiredAt, false);
+        } else {
+            TriggerTimingStats.getInstance().recordWakeLockHeld(TIMEOUT_MS, true);
+        }
+    }
+
+    private static void sweepExpired() {
+        // Locks whose holder never reported back have already timed out
+        Iterator<HeldLock> iterator = held.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().wakeLock.isHeld()) {
+                iterator.remove();
+                TriggerTimingStats.getInstance().recordWakeLockHeld(TIMEOUT_MS, true);
+            }
+        }
+    }
+
+    private static class HeldLock {
+        final PowerManager.WakeLock wakeLock;
+        final long acquiredAt;
+
+        HeldLock(PowerManager.WakeLock wakeLock, long acquiredAt) {
+            this.wakeLock = wakeLock;
+            this.acquiredAt = acquiredAt;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.androidsignalplugin.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a pasted list of 100 to 10k lines with a warm symbol table, as on
+ * every import after the first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalListParserBenchmark {
+    private static final String[] ASSETS = {"EURUSD", "GBPUSD", "USDJPY", "AUDCAD", "EURJPY", "BTCUSD"};
+    private static final String[] TIMEFRAMES = {"M1", "M5", "M15"};
+    private static final String[] DIRECTIONS = {"CALL", "PUT"};
+
+    @Param({"100", "1000", "10000"})
+    int lines;
+
+    private String text;
+    private SignalListParser parser;
+    private final CountingSink sink = new CountingSink();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            builder.append(TIMEFRAMES[random.nextInt(TIMEFRAMES.length)]).append(';')
+                .append(ASSETS[random.nextInt(ASSETS.length)]).append(';')
+                .append(String.format("%02d:%02d", random.nextInt(24), random.nextInt(60))).append(';')
+                .append(DIRECTIONS[random.nextInt(DIRECTIONS.length)]).append('\n');
+        }
+        text = builder.toString();
+        parser = new SignalListParser(new MapSymbolTable());
+        parser.parse(text, sink);
+    }
+
+    @Benchmark
+    public int parse() {
+        sink.signals = 0;
+        parser.parse(text, sink);
+        return sink.signals;
+    }
+
+    private static class CountingSink implements SignalListParser.Sink {
+        int signals;
+
+        @Override
+        public void onSignal(int line, int timeframeId, int assetId, int hours, int minutes, int direction) {
+            signals++;
+        }
+
+        @Override
+        public void onDuplicate(int line) {
+        }
+
+        @Override
+        public void onError(int line, int reason) {
+        }
+    }
+}
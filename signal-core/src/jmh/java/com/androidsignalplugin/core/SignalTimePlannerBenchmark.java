@@ -0,0 +1,57 @@
+package com.androidsignalplugin.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HH:MM to epoch planning: on an ordinary day (cached midnight) and on a
+ * day with a DST transition, where each time is resolved against the zone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalTimePlannerBenchmark {
+    private static final int TIMES = 1024;
+
+    // 2024-03-20 and 2024-03-31 (clocks go forward) in London, 06:00 local
+    @Param({"1710914400000", "1711864800000"})
+    long nowMillis;
+
+    private final SignalTimePlanner planner = SignalTimePlanner.getInstance();
+    private final int[] hours = new int[TIMES];
+    private final int[] minutes = new int[TIMES];
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+        planner.invalidate();
+        Random random = new Random(42);
+        for (int i = 0; i < TIMES; i++) {
+            hours[i] = random.nextInt(24);
+            minutes[i] = random.nextInt(60);
+        }
+    }
+
+    @Benchmark
+    public long plan() {
+        cursor = (cursor + 1) & (TIMES - 1);
+        return planner.nextSignalAt(hours[cursor], minutes[cursor], nowMillis);
+    }
+}
@@ -0,0 +1,104 @@
+package com.androidsignalplugin.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert, cancel and next-due on timelines of 100 to 100k pending signals.
+ * Every benchmark leaves the timeline at its starting size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalTimelineBenchmark {
+    private static final long START_MILLIS = 1_700_000_000_000L;
+    private static final int PROBES = 1024;
+
+    @Param({"100", "1000", "10000", "100000"})
+    int size;
+
+    private SignalTimeline timeline;
+    private TimelineEntry[] pending;
+    private TimelineEntry[] extra;
+    private long[] probeTimes;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        SignalRecord record = new SignalRecord(1, 2, SignalRecord.DIRECTION_CALL, START_MILLIS);
+        long spanMillis = size * 60_000L;
+
+        timeline = new SignalTimeline();
+        pending = new TimelineEntry[size];
+        for (int i = 0; i < size; i++) {
+            pending[i] = new TimelineEntry(i, START_MILLIS + (long) (random.nextDouble() * spanMillis), record);
+            timeline.put(pending[i]);
+        }
+
+        extra = new TimelineEntry[PROBES];
+        probeTimes = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeTimes[i] = START_MILLIS + (long) (random.nextDouble() * spanMillis);
+            extra[i] = new TimelineEntry(size + i, probeTimes[i], record);
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public TimelineEntry insertAndCancel() {
+        TimelineEntry entry = extra[next()];
+        timeline.put(entry);
+        return timeline.remove(entry.id);
+    }
+
+    @Benchmark
+    public TimelineEntry cancelAndReinsert() {
+        TimelineEntry entry = pending[next() % size];
+        timeline.remove(entry.id);
+        timeline.put(entry);
+        return entry;
+    }
+
+    @Benchmark
+    public TimelineEntry nextDue() {
+        return timeline.first();
+    }
+
+    @Benchmark
+    public TimelineEntry nextAfter() {
+        return timeline.firstAfter(probeTimes[next()]);
+    }
+
+    @Benchmark
+    public int pollDueAndRestore() {
+        TimelineEntry first = timeline.first();
+        List<List<TimelineEntry>> groups = timeline.pollDue(first.triggerAtMillis, 500, 1000);
+        for (List<TimelineEntry> group : groups) {
+            for (TimelineEntry entry : group) {
+                timeline.put(entry);
+            }
+        }
+        return groups.size();
+    }
+}
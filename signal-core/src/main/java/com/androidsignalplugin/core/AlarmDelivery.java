@@ -0,0 +1,49 @@
+package com.androidsignalplugin.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the alarm receiver does with a delivered trigger alarm: fire what is
+ * due, warm up ahead of an early wake-up, drop a repeat of something already
+ * fired in-process, or fall back to the entry the alarm carried when the
+ * timeline was lost with the process.
+ */
+public class AlarmDelivery {
+    public interface Target {
+        /**
+         * Hands one coalesced group to the service.
+         */
+        void fire(List<TimelineEntry> group);
+
+        /**
+         * Woken ahead of {@code triggerAtMillis}; the service fires it itself.
+         */
+        void prewarm(long triggerAtMillis);
+    }
+
+    private AlarmDelivery() {
+    }
+
+    /**
+     * @param armed the entry the alarm was armed for, rebuilt from its extras
+     */
+    public static void deliver(ScheduleEngine engine, long receivedAtMillis, TimelineEntry armed, Target target) {
+        List<List<TimelineEntry>> groups = engine.onAlarmFired(receivedAtMillis);
+        if (!groups.isEmpty()) {
+            // A backlog after a delayed wake-up arrives as several groups
+            for (List<TimelineEntry> group : groups) {
+                target.fire(group);
+            }
+            return;
+        }
+        if (armed.triggerAtMillis > receivedAtMillis + ScheduleEngine.DUE_SLACK_MS) {
+            target.prewarm(armed.triggerAtMillis);
+            return;
+        }
+        if (armed.triggerAtMillis <= engine.getLastFiredTriggerAtMillis()) {
+            return; // Already fired in-process by the dense-mode or pre-warm timer
+        }
+        target.fire(Collections.singletonList(armed));
+    }
+}
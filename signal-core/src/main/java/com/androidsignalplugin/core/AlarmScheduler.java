@@ -0,0 +1,17 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Wakes the device at an absolute wall clock time. Each slot holds at most
+ * one pending alarm; arming a slot replaces whatever it held.
+ */
+public interface AlarmScheduler {
+    int SLOT_TRIGGER = 0;
+
+    /**
+     * Arms {@code slot} for {@code triggerAtMillis}. {@code entry} travels with
+     * the alarm so it can still fire after the process was recreated.
+     */
+    void setExact(int slot, long triggerAtMillis, TimelineEntry entry);
+
+    void cancel(int slot);
+}
@@ -0,0 +1,26 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Where the trigger pipeline sends its alert sound.
+ */
+public interface AudioSink {
+    /**
+     * Gets playback ready ahead of a trigger; released again after
+     * {@code holdMs} if none arrives.
+     */
+    void prewarm(String audioPath, long holdMs);
+
+    /**
+     * Plays the alert for a trigger scheduled at {@code scheduledAtMillis};
+     * {@code onStarted} runs once it is audible, or when it is stopped without
+     * ever starting.
+     */
+    void playAudio(String audioPath, boolean isCustom, int duration, long scheduledAtMillis, Runnable onStarted);
+
+    void stopAudio();
+
+    /**
+     * Drops the caller's reference to the sink.
+     */
+    void release();
+}
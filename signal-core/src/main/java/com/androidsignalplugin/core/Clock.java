@@ -0,0 +1,14 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Time source for the trigger pipeline, so it can run against a virtual
+ * clock instead of the device's.
+ */
+public interface Clock {
+    long currentTimeMillis();
+
+    /**
+     * Monotonic milliseconds since boot; unaffected by wall clock changes.
+     */
+    long elapsedRealtime();
+}
@@ -0,0 +1,40 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Classifies a trigger by how far behind its scheduled time it actually ran.
+ * Late triggers still sound but are flagged; stale ones (the device slept or
+ * the process was dead well past the signal) are reported as missed instead.
+ */
+public class LateFirePolicy {
+    public static final int ON_TIME = 0;
+    public static final int LATE = 1;
+    public static final int STALE = 2;
+
+    private LateFirePolicy() {
+    }
+
+    public static int classify(long scheduledAtMillis, long firedAtMillis, long lateToleranceMs, long staleToleranceMs) {
+        if (scheduledAtMillis <= 0) {
+            return ON_TIME; // Nothing to compare against
+        }
+        long latenessMs = firedAtMillis - scheduledAtMillis;
+        if (latenessMs > staleToleranceMs) {
+            return STALE;
+        }
+        if (latenessMs > lateToleranceMs) {
+            return LATE;
+        }
+        return ON_TIME;
+    }
+
+    public static String name(int classification) {
+        switch (classification) {
+            case LATE:
+                return "late";
+            case STALE:
+                return "stale";
+            default:
+                return "onTime";
+        }
+    }
+}
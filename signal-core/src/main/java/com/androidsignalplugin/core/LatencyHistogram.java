@@ -0,0 +1,95 @@
+package com.androidsignalplugin.core;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of millisecond latencies, in the spirit of
+ * HdrHistogram: exact below 32 ms, then 16 buckets per power of two (~6%
+ * relative error). Recording never allocates.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    // Anything slower than an hour is clamped into the top bucket
+    public static final long MAX_TRACKABLE_MS = 60L * 60 * 1000;
+
+    private final long[] counts = new long[bucketIndex(MAX_TRACKABLE_MS) + 1];
+    private long totalCount;
+    private long maxValue;
+    private long minValue = Long.MAX_VALUE;
+    private long sum;
+
+    public synchronized void record(long valueMs) {
+        long value = Math.max(0, Math.min(valueMs, MAX_TRACKABLE_MS));
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > maxValue) {
+            maxValue = value;
+        }
+        if (value < minValue) {
+            minValue = value;
+        }
+    }
+
+    public synchronized long getCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMax() {
+        return maxValue;
+    }
+
+    public synchronized long getMin() {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    public synchronized double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile (0-100).
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        maxValue = 0;
+        minValue = Long.MAX_VALUE;
+        sum = 0;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) ((value >> shift) - HALF_SUB_BUCKETS);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.androidsignalplugin.core;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Alerts built ahead of their trigger, keyed by alarm id. The engine drops an
+ * entry from the timeline as it fires, before the alert is shown, so an alert
+ * leaves here when it is taken or its entry was cancelled, not merely when it
+ * stops being upcoming. Thread-safe.
+ */
+public class PrebuiltAlerts<A> {
+    // How long a fired entry's alert waits to be taken before it is dropped
+    public static final long FIRED_RETENTION_MS = 60_000;
+
+    private final Map<Integer, Slot<A>> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Whether {@code entry} has no alert built for its current content.
+     */
+    public boolean needsBuild(TimelineEntry entry) {
+        Slot<A> slot = slots.get(entry.id);
+        return slot == null || !slot.matches(entry);
+    }
+
+    public void put(TimelineEntry entry, A alert) {
+        slots.put(entry.id, new Slot<>(entry, alert));
+    }
+
+    /**
+     * Drops alerts for entries that are no longer {@code upcoming} and were
+     * not due by {@code nowMillis} (cancelled or moved), and alerts of fired
+     * entries nobody took within {@link #FIRED_RETENTION_MS}.
+     */
+    public void retain(Collection<TimelineEntry> upcoming, long nowMillis) {
+        Set<Integer> ids = new HashSet<>();
+        for (TimelineEntry entry : upcoming) {
+            ids.add(entry.id);
+        }
+        long dueUntil = nowMillis + ScheduleEngine.DUE_SLACK_MS;
+        for (Iterator<Map.Entry<Integer, Slot<A>>> it = slots.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Slot<A>> slot = it.next();
+            long triggerAt = slot.getValue().triggerAtMillis;
+            if (!ids.contains(slot.getKey()) && (triggerAt > dueUntil || triggerAt < nowMillis - FIRED_RETENTION_MS)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes the alert for {@code entry}'s id and returns it if it was built
+     * for this very entry, or null.
+     */
+    public A take(TimelineEntry entry) {
+        Slot<A> slot = slots.remove(entry.id);
+        return slot != null && slot.matches(entry) ? slot.alert : null;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private static class Slot<A> {
+        final long triggerAtMillis;
+        final long meta;
+        final long signalAtMillis;
+        final A alert;
+
+        Slot(TimelineEntry entry, A alert) {
+            this.triggerAtMillis = entry.triggerAtMillis;
+            this.meta = entry.record.packMeta();
+            this.signalAtMillis = entry.record.signalAtMillis;
+            this.alert = alert;
+        }
+
+        boolean matches(TimelineEntry entry) {
+            // Ids are reused when the web layer reschedules, so compare the content too
+            return entry.triggerAtMillis == triggerAtMillis
+                && entry.record.packMeta() == meta
+                && entry.record.signalAtMillis == signalAtMillis;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.androidsignalplugin.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the full signal timeline in-process and only ever arms the nearest
+ * entry with the {@link AlarmScheduler}. Each fire is handed back to
+ * {@link #onAlarmFired}, which pops the due entries and re-arms the next one.
+ *
+ * Every change is mirrored to the {@link TimelineStore}, so a fresh process
+ * rebuilds the timeline from it on construction.
+ *
+ * With a pre-warm lead set, the alarm wakes the device that much before the
+ * trigger. The caller warms up and fires the entry in-process at its time; the
+ * alarm is re-armed for the exact time only as a fallback, so there is still a
+ * single alarm per entry (Doze rate-limits back-to-back exact alarms).
+ *
+ * While a {@link TriggerOwner} is attached (the foreground service in dense
+ * mode), it fires entries within its horizon itself and the scheduler is only
+ * armed for the first entry beyond it.
+ *
+ * Clock, scheduler, store and settings are all passed in, so the same engine
+ * runs against a virtual clock on the JVM.
+ */
+public class ScheduleEngine {
+    public interface TriggerOwner {
+        /**
+         * Called with the earliest pending trigger time, or -1 when the
+         * timeline is empty, whenever it may have changed.
+         */
+        void onNextTrigger(long triggerAtMillis);
+    }
+
+    // Entries this close to the fire time are treated as due
+    public static final long DUE_SLACK_MS = 500;
+
+    private final Clock clock;
+    private final AlarmScheduler alarmScheduler;
+    private final TimelineStore store;
+    private final ScheduleSettings settings;
+    private final SignalTimeline timeline = new SignalTimeline();
+    private TimelineEntry armedEntry;
+    private TriggerOwner owner;
+    private long ownerHorizonMs;
+    private long lastFiredTriggerAtMillis;
+
+    public ScheduleEngine(Clock clock, AlarmScheduler alarmScheduler, TimelineStore store, ScheduleSettings settings) {
+        this.clock = clock;
+        this.alarmScheduler = alarmScheduler;
+        this.store = store;
+        this.settings = settings;
+
+        for (TimelineEntry entry : store.load()) {
+            timeline.put(entry);
+        }
+    }
+
+    public synchronized void schedule(int id, long triggerAtMillis, SignalRecord record) {
+        TimelineEntry entry = new TimelineEntry(id, triggerAtMillis, record);
+        timeline.put(entry);
+        store.appendPut(Collections.singletonList(entry));
+        store.compactIfNeeded(timeline.entries());
+        armNext();
+    }
+
+    public synchronized void scheduleAll(List<TimelineEntry> entries) {
+        for (TimelineEntry entry : entries) {
+            timeline.put(entry);
+        }
+        store.appendPut(entries);
+        store.compactIfNeeded(timeline.entries());
+        armNext();
+    }
+
+    public synchronized boolean cancel(int id) {
+        if (timeline.remove(id) == null) {
+            return false;
+        }
+        store.appendRemove(Collections.singletonList(id));
+        store.compactIfNeeded(timeline.entries());
+        armNext();
+        return true;
+    }
+
+    public synchronized int cancelAll() {
+        int count = timeline.size();
+        timeline.clear();
+        store.clear();
+        armNext();
+        return count;
+    }
+
+    /**
+     * Re-arms the nearest restored entry. Used when a fresh process (service
+     * restart, receiver wake-up) needs the chain running again.
+     */
+    public synchronized void ensureArmed() {
+        armedEntry = null;
+        armNext();
+    }
+
+    public synchronized int size() {
+        return timeline.size();
+    }
+
+    /**
+     * First id at or above {@code floor} that is above every pending id, so
+     * entries added from it on never replace pending ones.
+     */
+    public synchronized int nextFreeId(int floor) {
+        return Math.max(floor, timeline.maxId() + 1);
+    }
+
+    /**
+     * The next {@code limit} pending entries, earliest first.
+     */
+    public synchronized List<TimelineEntry> upcoming(int limit) {
+        return timeline.upcoming(limit);
+    }
+
+    public synchronized void attachOwner(TriggerOwner owner, long horizonMs) {
+        this.owner = owner;
+        this.ownerHorizonMs = horizonMs;
+        armNext();
+    }
+
+    public synchronized void detachOwner(TriggerOwner owner) {
+        if (this.owner == owner) {
+            this.owner = null;
+            armNext();
+        }
+    }
+
+    /**
+     * Latest trigger time already handed out by {@link #onAlarmFired}, so a
+     * late delivery of the same entry can be recognised.
+     */
+    public synchronized long getLastFiredTriggerAtMillis() {
+        return lastFiredTriggerAtMillis;
+    }
+
+    /**
+     * Removes and returns every entry due at {@code nowMillis}, then arms the
+     * next pending one. Each returned group fires as a single alert: entries
+     * triggering within the coalescing window of the group's first one.
+     *
+     * Nothing is due on a pre-warm wake-up; the armed entry's alarm then moves
+     * to its exact trigger time in case the caller cannot hold on until then.
+     */
+    public synchronized List<List<TimelineEntry>> onAlarmFired(long nowMillis) {
+        List<List<TimelineEntry>> groups = timeline.pollDue(nowMillis, DUE_SLACK_MS, settings.getCoalesceWindowMs());
+        List<Integer> dueIds = new ArrayList<>();
+        for (List<TimelineEntry> group : groups) {
+            for (TimelineEntry entry : group) {
+                dueIds.add(entry.id);
+                lastFiredTriggerAtMillis = Math.max(lastFiredTriggerAtMillis, entry.triggerAtMillis);
+            }
+        }
+        store.appendRemove(dueIds);
+        store.compactIfNeeded(timeline.entries());
+        armNext();
+
+        if (groups.isEmpty() && armedEntry != null && armedEntry.triggerAtMillis > nowMillis + DUE_SLACK_MS) {
+            alarmScheduler.setExact(AlarmScheduler.SLOT_TRIGGER, armedEntry.triggerAtMillis, armedEntry);
+        }
+        return groups;
+    }
+
+    /**
+     * Called with the lock held whenever the pending set may have changed,
+     * before anything is armed. {@code next} is null when nothing is pending.
+     */
+    protected void onScheduleChanged(TimelineEntry next) {
+    }
+
+    /**
+     * Called with the lock held after the trigger slot was armed for
+     * {@code entry}, or cancelled when it is null.
+     */
+    protected void onArmed(TimelineEntry entry) {
+    }
+
+    private void armNext() {
+        TimelineEntry next = timeline.first();
+        onScheduleChanged(next);
+        if (owner != null) {
+            owner.onNextTrigger(next != null ? next.triggerAtMillis : -1);
+            // The scheduler only has to cover what the owner will not fire in time
+            long horizonEnd = clock.currentTimeMillis() + ownerHorizonMs;
+            next = timeline.firstAfter(horizonEnd);
+        }
+        if (next != null && next == armedEntry) {
+            return;
+        }
+
+        if (next == null) {
+            alarmScheduler.cancel(AlarmScheduler.SLOT_TRIGGER);
+            armedEntry = null;
+            onArmed(null);
+            return;
+        }
+
+        alarmScheduler.setExact(AlarmScheduler.SLOT_TRIGGER, wakeTimeFor(next), next);
+        armedEntry = next;
+        onArmed(next);
+    }
+
+    private long wakeTimeFor(TimelineEntry entry) {
+        long leadMs = settings.getPrewarmLeadMs();
+        long prewarmAt = entry.triggerAtMillis - leadMs;
+        return leadMs > 0 && prewarmAt > clock.currentTimeMillis() ? prewarmAt : entry.triggerAtMillis;
+    }
+}
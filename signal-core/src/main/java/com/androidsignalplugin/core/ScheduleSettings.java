@@ -0,0 +1,17 @@
+package com.androidsignalplugin.core;
+
+/**
+ * The alert settings the schedule engine reads on every fire.
+ */
+public interface ScheduleSettings {
+    /**
+     * Signals triggering within this window of each other fire as one alert.
+     */
+    long getCoalesceWindowMs();
+
+    /**
+     * How long before a trigger the alarm wakes the device to warm up the
+     * audio pipeline; 0 disables it.
+     */
+    long getPrewarmLeadMs();
+}
@@ -0,0 +1,202 @@
+package com.androidsignalplugin.core;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass scanner for pasted signal lists in the same
+ * {@code timeframe;asset;HH:MM;direction} line format as the web parser.
+ *
+ * Fields are located by index and numbers parsed digit by digit, so scanning
+ * allocates nothing; names are interned straight from the text. Duplicate
+ * signals (same timeframe, asset, time and direction) are reported once.
+ */
+public class SignalListParser {
+    public static final int ERROR_FIELD_COUNT = 1;
+    public static final int ERROR_TIME = 2;
+    public static final int ERROR_ASSET = 3;
+
+    public interface Sink {
+        void onSignal(int line, int timeframeId, int assetId, int hours, int minutes, int direction);
+
+        void onDuplicate(int line);
+
+        void onError(int line, int reason);
+    }
+
+    private static final int FIELD_COUNT = 4;
+
+    private final SymbolTable symbols;
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private long[] seen = new long[256];
+    private int seenCount;
+
+    public SignalListParser(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    public static String describeError(int reason) {
+        switch (reason) {
+            case ERROR_FIELD_COUNT:
+                return "Expected timeframe;asset;HH:MM;direction";
+            case ERROR_TIME:
+                return "Invalid HH:MM time";
+            case ERROR_ASSET:
+                return "Missing asset";
+            default:
+                return "Invalid line";
+        }
+    }
+
+    public void parse(CharSequence text, Sink sink) {
+        clearSeen();
+        int length = text.length();
+        int lineStart = 0;
+        int line = 0;
+
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            line++;
+            parseLine(text, lineStart, lineEnd, line, sink);
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private void parseLine(CharSequence text, int start, int end, int line, Sink sink) {
+        if (isBlank(text, start, end)) {
+            return;
+        }
+
+        // Split on ';' into exactly four trimmed fields
+        int field = 0;
+        int fieldBegin = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text.charAt(i) == ';') {
+                if (field == FIELD_COUNT) {
+                    sink.onError(line, ERROR_FIELD_COUNT);
+                    return;
+                }
+                fieldStart[field] = trimStart(text, fieldBegin, i);
+                fieldEnd[field] = trimEnd(text, fieldStart[field], i);
+                field++;
+                fieldBegin = i + 1;
+            }
+        }
+        if (field != FIELD_COUNT) {
+            sink.onError(line, ERROR_FIELD_COUNT);
+            return;
+        }
+
+        // HH:MM, two digits each
+        int timeStart = fieldStart[2];
+        if (fieldEnd[2] - timeStart != 5 || text.charAt(timeStart + 2) != ':') {
+            sink.onError(line, ERROR_TIME);
+            return;
+        }
+        int hours = twoDigits(text, timeStart);
+        int minutes = twoDigits(text, timeStart + 3);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            sink.onError(line, ERROR_TIME);
+            return;
+        }
+
+        if (fieldEnd[1] == fieldStart[1]) {
+            sink.onError(line, ERROR_ASSET);
+            return;
+        }
+
+        int timeframeId = symbols.intern(text, fieldStart[0], fieldEnd[0]);
+        int assetId = symbols.intern(text, fieldStart[1], fieldEnd[1]);
+        int direction = parseDirection(text, fieldStart[3], fieldEnd[3]);
+
+        long key = SignalRecord.packMeta(assetId, timeframeId, direction) * 1440 + hours * 60 + minutes;
+        if (!addSeen(key)) {
+            sink.onDuplicate(line);
+            return;
+        }
+        sink.onSignal(line, timeframeId, assetId, hours, minutes, direction);
+    }
+
+    static int parseDirection(CharSequence text, int start, int end) {
+        if (matches(text, start, end, "CALL") || matches(text, start, end, "UP") || matches(text, start, end, "BUY")) {
+            return SignalRecord.DIRECTION_CALL;
+        }
+        if (matches(text, start, end, "PUT") || matches(text, start, end, "DOWN") || matches(text, start, end, "SELL")) {
+            return SignalRecord.DIRECTION_PUT;
+        }
+        return SignalRecord.DIRECTION_UNKNOWN;
+    }
+
+    private static boolean matches(CharSequence text, int start, int end, String upperCase) {
+        if (end - start != upperCase.length()) {
+            return false;
+        }
+        for (int i = 0; i < upperCase.length(); i++) {
+            if (Character.toUpperCase(text.charAt(start + i)) != upperCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int twoDigits(CharSequence text, int at) {
+        int tens = text.charAt(at) - '0';
+        int ones = text.charAt(at + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    private static boolean isBlank(CharSequence text, int start, int end) {
+        return trimStart(text, start, end) == end;
+    }
+
+    private static int trimStart(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    // Open-addressing set of signal keys; 0 marks an empty slot so keys are stored + 1
+
+    private void clearSeen() {
+        Arrays.fill(seen, 0);
+        seenCount = 0;
+    }
+
+    private boolean addSeen(long key) {
+        long stored = key + 1;
+        int mask = seen.length - 1;
+        int slot = (int) (stored ^ (stored >>> 32)) * 0x9E3779B9 & mask;
+        while (seen[slot] != 0) {
+            if (seen[slot] == stored) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        seen[slot] = stored;
+        if (++seenCount * 2 > seen.length) {
+            long[] old = seen;
+            seen = new long[old.length * 2];
+            seenCount = 0;
+            for (long value : old) {
+                if (value != 0) {
+                    addSeen(value - 1);
+                }
+            }
+        }
+        return true;
+    }
+}
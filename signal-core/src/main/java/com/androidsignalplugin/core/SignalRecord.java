@@ -0,0 +1,79 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Compact signal: interned asset and timeframe ids, a direction code and the
+ * signal's epoch time. The first three pack into one long, so a record
+ * travels through Intent extras and the timeline log as two primitives.
+ */
+public class SignalRecord {
+    public static final int DIRECTION_UNKNOWN = 0;
+    public static final int DIRECTION_CALL = 1;
+    public static final int DIRECTION_PUT = 2;
+
+    private static final int ID_BITS = 24;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    public final int assetId;
+    public final int timeframeId;
+    public final int direction;
+    public final long signalAtMillis;
+
+    public SignalRecord(int assetId, int timeframeId, int direction, long signalAtMillis) {
+        this.assetId = assetId;
+        this.timeframeId = timeframeId;
+        this.direction = direction;
+        this.signalAtMillis = signalAtMillis;
+    }
+
+    public static SignalRecord of(SymbolTable symbols, String asset, String timeframe, String direction, long signalAtMillis) {
+        return new SignalRecord(
+            symbols.intern(asset != null ? asset.trim() : ""),
+            symbols.intern(timeframe != null ? timeframe.trim() : ""),
+            parseDirection(direction),
+            signalAtMillis
+        );
+    }
+
+    public static int parseDirection(String direction) {
+        if (direction == null) {
+            return DIRECTION_UNKNOWN;
+        }
+        switch (direction.trim().toUpperCase()) {
+            case "CALL":
+            case "UP":
+            case "BUY":
+                return DIRECTION_CALL;
+            case "PUT":
+            case "DOWN":
+            case "SELL":
+                return DIRECTION_PUT;
+            default:
+                return DIRECTION_UNKNOWN;
+        }
+    }
+
+    public long packMeta() {
+        return packMeta(assetId, timeframeId, direction);
+    }
+
+    public static long packMeta(int assetId, int timeframeId, int direction) {
+        return ((long) direction << (ID_BITS * 2)) | ((long) timeframeId << ID_BITS) | assetId;
+    }
+
+    public static SignalRecord unpack(long meta, long signalAtMillis) {
+        return new SignalRecord(
+            (int) (meta & ID_MASK),
+            (int) ((meta >>> ID_BITS) & ID_MASK),
+            (int) (meta >>> (ID_BITS * 2)),
+            signalAtMillis
+        );
+    }
+
+    public String directionName() {
+        return direction == DIRECTION_CALL ? "CALL" : direction == DIRECTION_PUT ? "PUT" : "";
+    }
+
+    public String describe(SymbolTable symbols) {
+        return symbols.lookup(timeframeId) + " " + symbols.lookup(assetId) + " " + directionName();
+    }
+}
@@ -0,0 +1,114 @@
+package com.androidsignalplugin.core;
+
+import java.util.TimeZone;
+
+/**
+ * Turns a signal's HH:MM wall-clock time into epoch millis without Calendar.
+ *
+ * The epochs of today's and tomorrow's local midnight are cached together with
+ * their zone offsets, so a lookup on an ordinary day is plain arithmetic. A
+ * day containing a DST transition resolves each time against the zone. Times
+ * that already passed today roll over to tomorrow.
+ */
+public class SignalTimePlanner {
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final long HOUR_MS = 60 * MINUTE_MS;
+
+    private static SignalTimePlanner instance;
+
+    private TimeZone zone;
+    private final Day today = new Day();
+    private final Day tomorrow = new Day();
+
+    public static synchronized SignalTimePlanner getInstance() {
+        if (instance == null) {
+            instance = new SignalTimePlanner();
+        }
+        return instance;
+    }
+
+    private SignalTimePlanner() {
+    }
+
+    /**
+     * Epoch millis of the next occurrence of HH:MM strictly after now.
+     */
+    public synchronized long nextSignalAt(int hours, int minutes, long nowMillis) {
+        if (zone == null || nowMillis < today.startMillis || nowMillis >= today.endMillis) {
+            refresh(nowMillis);
+        }
+        int minuteOfDay = hours * 60 + minutes;
+        long signalAt = today.at(zone, minuteOfDay);
+        if (signalAt > nowMillis) {
+            return signalAt;
+        }
+        return tomorrow.at(zone, minuteOfDay);
+    }
+
+    /**
+     * Drops the cached days, e.g. after the clock or time zone was changed.
+     */
+    public synchronized void invalidate() {
+        zone = null;
+    }
+
+    private void refresh(long nowMillis) {
+        // TimeZone.getDefault() hands out a copy, so only look it up once per day
+        zone = TimeZone.getDefault();
+        long todayStart = midnightOf(zone, nowMillis);
+        // Days are 23-25 hours long, so +36h and +60h land inside the next two days
+        long tomorrowStart = midnightOf(zone, todayStart + 36 * HOUR_MS);
+        today.set(zone, todayStart, tomorrowStart);
+        tomorrow.set(zone, tomorrowStart, midnightOf(zone, todayStart + 60 * HOUR_MS));
+    }
+
+    private static long midnightOf(TimeZone zone, long epochMillis) {
+        int offset = zone.getOffset(epochMillis);
+        long local = epochMillis + offset;
+        long localMidnight = local - Math.floorMod(local, 24 * HOUR_MS);
+        // Some zones shift at midnight, so resolve against the offset in force the evening before
+        return toEpoch(zone, localMidnight, zone.getOffset(localMidnight - offset - 3 * HOUR_MS));
+    }
+
+    /**
+     * Resolves a local wall-clock time the way java.time does: the earlier
+     * instant when a backward transition repeats it, and shifted forward by the
+     * gap when a forward transition skips it.
+     */
+    private static long toEpoch(TimeZone zone, long localMillis, int offsetGuess) {
+        long before = localMillis - offsetGuess;
+        if (zone.getOffset(before) == offsetGuess) {
+            return before;
+        }
+        int offsetAfter = zone.getOffset(before);
+        long after = localMillis - offsetAfter;
+        if (zone.getOffset(after) == offsetAfter) {
+            return after;
+        }
+        // In a gap the smaller (pre-transition) offset pushes the time past it
+        return localMillis - Math.min(offsetGuess, offsetAfter);
+    }
+
+    private static class Day {
+        long startMillis;
+        long endMillis;
+        long localStartMillis;
+        int startOffset;
+        boolean hasTransition;
+
+        void set(TimeZone zone, long startMillis, long endMillis) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            startOffset = zone.getOffset(startMillis);
+            long local = startMillis + startOffset;
+            localStartMillis = local - Math.floorMod(local, 24 * HOUR_MS);
+            // A midnight skipped by a forward transition also needs per-time resolution
+            hasTransition = zone.getOffset(endMillis - 1) != startOffset || local != localStartMillis;
+        }
+
+        long at(TimeZone zone, int minuteOfDay) {
+            long local = localStartMillis + minuteOfDay * MINUTE_MS;
+            return hasTransition ? toEpoch(zone, local, startOffset) : local - startOffset;
+        }
+    }
+}
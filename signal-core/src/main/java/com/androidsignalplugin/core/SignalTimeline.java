@@ -0,0 +1,121 @@
+package com.androidsignalplugin.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Pending signals ordered by trigger time, indexed by id. Pops due entries as
+ * coalesced groups. Not thread-safe; the owner serializes access.
+ */
+public class SignalTimeline {
+    private final TreeSet<TimelineEntry> ordered = new TreeSet<>();
+    private final Map<Integer, TimelineEntry> byId = new HashMap<>();
+
+    /**
+     * Adds the entry, replacing any pending entry with the same id.
+     */
+    public void put(TimelineEntry entry) {
+        TimelineEntry previous = byId.put(entry.id, entry);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+        ordered.add(entry);
+    }
+
+    public TimelineEntry remove(int id) {
+        TimelineEntry entry = byId.remove(id);
+        if (entry != null) {
+            ordered.remove(entry);
+        }
+        return entry;
+    }
+
+    public void clear() {
+        ordered.clear();
+        byId.clear();
+    }
+
+    public int size() {
+        return ordered.size();
+    }
+
+    /**
+     * Highest pending id, or -1 when empty.
+     */
+    public int maxId() {
+        int max = -1;
+        for (int id : byId.keySet()) {
+            max = Math.max(max, id);
+        }
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return ordered.isEmpty();
+    }
+
+    /**
+     * Earliest pending entry, or null.
+     */
+    public TimelineEntry first() {
+        return ordered.isEmpty() ? null : ordered.first();
+    }
+
+    /**
+     * Earliest entry triggering strictly after {@code timeMillis}, or null.
+     */
+    public TimelineEntry firstAfter(long timeMillis) {
+        return ordered.higher(new TimelineEntry(Integer.MAX_VALUE, timeMillis, null));
+    }
+
+    /**
+     * Removes and returns every entry due by {@code nowMillis + slackMs}, split
+     * into groups in trigger order. A group holds the entries triggering within
+     * {@code coalesceWindowMs} of its first one, so a backlog left by a delayed
+     * wake-up comes back as separate groups rather than one merged alert.
+     */
+    public List<List<TimelineEntry>> pollDue(long nowMillis, long slackMs, long coalesceWindowMs) {
+        long dueUntil = nowMillis + slackMs;
+        List<List<TimelineEntry>> groups = new ArrayList<>();
+        List<TimelineEntry> group = null;
+        long groupEnd = 0;
+        while (!ordered.isEmpty()) {
+            TimelineEntry entry = ordered.first();
+            if (group == null || entry.triggerAtMillis > groupEnd) {
+                if (entry.triggerAtMillis > dueUntil) {
+                    break;
+                }
+                group = new ArrayList<>();
+                groups.add(group);
+                groupEnd = entry.triggerAtMillis + coalesceWindowMs;
+            }
+            ordered.pollFirst();
+            byId.remove(entry.id);
+            group.add(entry);
+        }
+        return groups;
+    }
+
+    /**
+     * Up to {@code limit} earliest pending entries, in trigger order.
+     */
+    public List<TimelineEntry> upcoming(int limit) {
+        List<TimelineEntry> upcoming = new ArrayList<>(Math.min(limit, ordered.size()));
+        for (TimelineEntry entry : ordered) {
+            if (upcoming.size() == limit) {
+                break;
+            }
+            upcoming.add(entry);
+        }
+        return upcoming;
+    }
+
+    public Collection<TimelineEntry> entries() {
+        return Collections.unmodifiableCollection(ordered);
+    }
+}
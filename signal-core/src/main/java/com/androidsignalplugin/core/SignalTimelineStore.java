@@ -0,0 +1,188 @@
+package com.androidsignalplugin.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only binary log of timeline changes. Replaying it rebuilds the
+ * pending schedule after process death without waiting for the WebView.
+ *
+ * Layout: magic, version, then records of [op:byte][id:int] followed by
+ * [triggerAt:long][signalMeta:long][signalAt:long] for puts (see
+ * {@link SignalRecord}). A torn record at the tail is ignored on replay.
+ */
+public class SignalTimelineStore implements TimelineStore {
+    private static final Logger LOG = Logger.getLogger("SignalTimelineStore");
+    private static final String FILE_NAME = "signal_timeline.bin";
+
+    private static final int MAGIC = 0x53474C54; // "SGLT"
+    private static final int VERSION = 2;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    // Rewrite the log once dead records outnumber live ones by this much
+    private static final int COMPACT_SLACK = 64;
+
+    private final File file;
+    private int recordCount;
+
+    public SignalTimelineStore(File directory) {
+        this.file = new File(directory, FILE_NAME);
+    }
+
+    @Override
+    public synchronized List<TimelineEntry> load() {
+        Map<Integer, TimelineEntry> entries = new LinkedHashMap<>();
+        boolean needsRewrite = false;
+        recordCount = 0;
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != VERSION) {
+                LOG.warning("Unknown timeline file format, discarding");
+                file.delete();
+                return new ArrayList<>();
+            }
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (op == OP_REMOVE) {
+                    entries.remove(in.readInt());
+                } else if (op == OP_PUT) {
+                    int id = in.readInt();
+                    long triggerAt = in.readLong();
+                    long meta = in.readLong();
+                    SignalRecord record = SignalRecord.unpack(meta, in.readLong());
+                    entries.put(id, new TimelineEntry(id, triggerAt, record));
+                } else {
+                    LOG.warning("Corrupt timeline record, stopping replay");
+                    needsRewrite = true;
+                    break;
+                }
+                recordCount++;
+            }
+        } catch (EOFException e) {
+            LOG.warning("Torn record at end of timeline log ignored");
+            needsRewrite = true;
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Failed to read timeline log", e);
+        }
+
+        List<TimelineEntry> live = new ArrayList<>(entries.values());
+        if (needsRewrite) {
+            // Drop a broken tail so later appends stay readable
+            rewrite(live);
+        }
+        return live;
+    }
+
+    @Override
+    public synchronized void appendPut(Collection<TimelineEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try (DataOutputStream out = openAppend()) {
+            for (TimelineEntry entry : entries) {
+                writePut(out, entry);
+            }
+            recordCount += entries.size();
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Failed to append timeline entries", e);
+        }
+    }
+
+    @Override
+    public synchronized void appendRemove(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (DataOutputStream out = openAppend()) {
+            for (int id : ids) {
+                out.writeByte(OP_REMOVE);
+                out.writeInt(id);
+            }
+            recordCount += ids.size();
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Failed to append timeline removals", e);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        rewrite(new ArrayList<>());
+    }
+
+    /**
+     * Rewrites the log as a plain snapshot of {@code live} when it has grown
+     * well past the number of pending entries.
+     */
+    @Override
+    public synchronized void compactIfNeeded(Collection<TimelineEntry> live) {
+        if (recordCount > live.size() * 2 + COMPACT_SLACK) {
+            rewrite(live);
+        }
+    }
+
+    private void rewrite(Collection<TimelineEntry> live) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (TimelineEntry entry : live) {
+                writePut(out, entry);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Failed to write timeline snapshot", e);
+            temp.delete();
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            LOG.severe("Failed to replace timeline log");
+            temp.delete();
+            return;
+        }
+        recordCount = live.size();
+    }
+
+    private DataOutputStream openAppend() throws IOException {
+        boolean fresh = !file.exists() || file.length() == 0;
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        if (fresh) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+        return out;
+    }
+
+    private static void writePut(DataOutputStream out, TimelineEntry entry) throws IOException {
+        out.writeByte(OP_PUT);
+        out.writeInt(entry.id);
+        out.writeLong(entry.triggerAtMillis);
+        out.writeLong(entry.record.packMeta());
+        out.writeLong(entry.record.signalAtMillis);
+    }
+}
@@ -0,0 +1,16 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Maps asset and timeframe names to small stable ids and back.
+ */
+public interface SymbolTable {
+    int intern(String symbol);
+
+    /**
+     * Interns {@code text[start, end)} without requiring a String for names
+     * that are already known.
+     */
+    int intern(CharSequence text, int start, int end);
+
+    String lookup(int id);
+}
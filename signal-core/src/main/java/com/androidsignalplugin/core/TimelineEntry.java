@@ -0,0 +1,23 @@
+package com.androidsignalplugin.core;
+
+/**
+ * One scheduled signal: its alarm id, when the alert fires and what it is.
+ * Ordered by trigger time, then id.
+ */
+public class TimelineEntry implements Comparable<TimelineEntry> {
+    public final int id;
+    public final long triggerAtMillis;
+    public final SignalRecord record;
+
+    public TimelineEntry(int id, long triggerAtMillis, SignalRecord record) {
+        this.id = id;
+        this.triggerAtMillis = triggerAtMillis;
+        this.record = record;
+    }
+
+    @Override
+    public int compareTo(TimelineEntry other) {
+        int byTime = Long.compare(triggerAtMillis, other.triggerAtMillis);
+        return byTime != 0 ? byTime : Integer.compare(id, other.id);
+    }
+}
@@ -0,0 +1,22 @@
+package com.androidsignalplugin.core;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable mirror of the timeline, replayed when a fresh process starts.
+ */
+public interface TimelineStore {
+    List<TimelineEntry> load();
+
+    void appendPut(Collection<TimelineEntry> entries);
+
+    void appendRemove(Collection<Integer> ids);
+
+    void clear();
+
+    /**
+     * Gives the store a chance to shrink itself down to {@code live}.
+     */
+    void compactIfNeeded(Collection<TimelineEntry> live);
+}
@@ -0,0 +1,44 @@
+package com.androidsignalplugin.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fired group split by {@link LateFirePolicy}. Each entry is judged on its
+ * own trigger time, so only the expired ones in a backlog are suppressed.
+ */
+public class TriggerVerdict {
+    public final List<TimelineEntry> live = new ArrayList<>();
+    public final List<TimelineEntry> stale = new ArrayList<>();
+    private final int[] classifications;
+    private int classification = LateFirePolicy.ON_TIME;
+
+    public TriggerVerdict(List<TimelineEntry> group, long nowMillis, long lateToleranceMs, long staleToleranceMs) {
+        classifications = new int[group.size()];
+        for (int i = 0; i < group.size(); i++) {
+            TimelineEntry entry = group.get(i);
+            int entryClassification = LateFirePolicy.classify(entry.triggerAtMillis, nowMillis, lateToleranceMs, staleToleranceMs);
+            classifications[i] = entryClassification;
+            if (entryClassification == LateFirePolicy.STALE) {
+                stale.add(entry);
+            } else {
+                live.add(entry);
+                classification = Math.max(classification, entryClassification);
+            }
+        }
+    }
+
+    /**
+     * Worst classification among the live entries.
+     */
+    public int getClassification() {
+        return classification;
+    }
+
+    /**
+     * Classification of the group's {@code index}th entry.
+     */
+    public int classificationAt(int index) {
+        return classifications[index];
+    }
+}
@@ -0,0 +1,42 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Records what is armed in each slot instead of waking anything.
+ */
+public class FakeAlarmScheduler implements AlarmScheduler {
+    public static final long NOT_ARMED = -1;
+
+    // One per slot; the engine only uses SLOT_TRIGGER
+    private final long[] armedAt = {NOT_ARMED};
+    private final TimelineEntry[] armedEntry = new TimelineEntry[1];
+    private int setCount;
+
+    @Override
+    public void setExact(int slot, long triggerAtMillis, TimelineEntry entry) {
+        armedAt[slot] = triggerAtMillis;
+        armedEntry[slot] = entry;
+        setCount++;
+    }
+
+    @Override
+    public void cancel(int slot) {
+        armedAt[slot] = NOT_ARMED;
+        armedEntry[slot] = null;
+    }
+
+    public long armedAt(int slot) {
+        return armedAt[slot];
+    }
+
+    public TimelineEntry armedEntry(int slot) {
+        return armedEntry[slot];
+    }
+
+    public boolean isArmed(int slot) {
+        return armedAt[slot] != NOT_ARMED;
+    }
+
+    public int getSetCount() {
+        return setCount;
+    }
+}
@@ -0,0 +1,86 @@
+package com.androidsignalplugin.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogramReportsZeros() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean(), 0);
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void exactBelowThirtyTwoMillis() {
+        for (long value = 0; value < 32; value++) {
+            assertEquals(value, LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value)));
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguousAndWithinSixPercent() {
+        int previousIndex = -1;
+        for (long value = 0; value <= LatencyHistogram.MAX_TRACKABLE_MS; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue("index never skips or goes back at " + value, index == previousIndex || index == previousIndex + 1);
+            long upper = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue("bucket covers " + value, upper >= value);
+            assertTrue("bucket for " + value + " too wide", upper - value <= value / 16);
+            previousIndex = index;
+        }
+    }
+
+    @Test
+    public void percentilesTrackSortedSamples() {
+        Random random = new Random(7);
+        long[] samples = new long[10_000];
+        for (int i = 0; i < samples.length; i++) {
+            // Mostly fast with a long tail, like trigger latencies
+            samples[i] = (long) (Math.exp(random.nextGaussian() * 1.5 + 3));
+            histogram.record(samples[i]);
+        }
+        Arrays.sort(samples);
+
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = samples[(int) Math.ceil(percentile / 100 * samples.length) - 1];
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(percentile + "th " + reported + " below " + exact, reported >= exact);
+            assertTrue(percentile + "th " + reported + " too far above " + exact, reported - exact <= exact / 16);
+        }
+        assertEquals(samples[samples.length - 1], histogram.getPercentile(100));
+        assertEquals(samples[samples.length - 1], histogram.getMax());
+        assertEquals(samples[0], histogram.getMin());
+    }
+
+    @Test
+    public void clampsOutOfRangeValues() {
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_TRACKABLE_MS * 10);
+
+        assertEquals(0, histogram.getMin());
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_MS, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_MS / 2.0, histogram.getMean(), 0.5);
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        histogram.record(40);
+        histogram.reset();
+        histogram.record(10);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(10, histogram.getMin());
+        assertEquals(10, histogram.getMax());
+        assertEquals(10, histogram.getPercentile(50));
+    }
+}
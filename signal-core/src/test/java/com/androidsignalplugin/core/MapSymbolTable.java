@@ -0,0 +1,35 @@
+package com.androidsignalplugin.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory symbol table for tests and benchmarks.
+ */
+public class MapSymbolTable implements SymbolTable {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> symbols = new ArrayList<>();
+
+    @Override
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id == null) {
+            id = symbols.size();
+            symbols.add(symbol);
+            ids.put(symbol, id);
+        }
+        return id;
+    }
+
+    @Override
+    public int intern(CharSequence text, int start, int end) {
+        return intern(text.subSequence(start, end).toString());
+    }
+
+    @Override
+    public String lookup(int id) {
+        return id >= 0 && id < symbols.size() ? symbols.get(id) : null;
+    }
+}
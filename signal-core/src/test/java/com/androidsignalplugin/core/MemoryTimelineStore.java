@@ -0,0 +1,44 @@
+package com.androidsignalplugin.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Store that survives an engine being rebuilt but not the JVM.
+ */
+public class MemoryTimelineStore implements TimelineStore {
+    private final Map<Integer, TimelineEntry> entries = new LinkedHashMap<>();
+
+    @Override
+    public List<TimelineEntry> load() {
+        return new ArrayList<>(entries.values());
+    }
+
+    @Override
+    public void appendPut(Collection<TimelineEntry> added) {
+        for (TimelineEntry entry : added) {
+            entries.put(entry.id, entry);
+        }
+    }
+
+    @Override
+    public void appendRemove(Collection<Integer> ids) {
+        entries.keySet().removeAll(ids);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public void compactIfNeeded(Collection<TimelineEntry> live) {
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,103 @@
+package com.androidsignalplugin.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Drives the alerts the way SignalScheduleEngine and the service do: every
+ * schedule change re-prepares the next few, and a fired group takes its alert
+ * only after the engine has already dropped the entry.
+ */
+public class PrebuiltAlertsTest {
+    private static final long T = 1_718_200_000_000L;
+    private static final int PREBUILD_COUNT = 8;
+
+    private VirtualClock clock;
+    private PrebuiltAlerts<String> alerts;
+    private ScheduleEngine engine;
+
+    @Before
+    public void setUp() {
+        clock = new VirtualClock(T - 600_000);
+        alerts = new PrebuiltAlerts<>();
+        engine = new ScheduleEngine(clock, new FakeAlarmScheduler(), new MemoryTimelineStore(), new ScheduleSettings() {
+            @Override
+            public long getCoalesceWindowMs() {
+                return 1000;
+            }
+
+            @Override
+            public long getPrewarmLeadMs() {
+                return 0;
+            }
+        }) {
+            @Override
+            protected void onScheduleChanged(TimelineEntry next) {
+                List<TimelineEntry> upcoming = upcoming(PREBUILD_COUNT);
+                for (TimelineEntry entry : upcoming) {
+                    if (alerts.needsBuild(entry)) {
+                        alerts.put(entry, "alert " + entry.id);
+                    }
+                }
+                alerts.retain(upcoming, clock.currentTimeMillis());
+            }
+        };
+    }
+
+    @Test
+    public void firedEntryKeepsItsAlertUntilShown() {
+        engine.schedule(1, T, record(T));
+        engine.schedule(2, T + 60_000, record(T + 60_000));
+
+        clock.advanceTo(T + 200);
+        List<List<TimelineEntry>> groups = engine.onAlarmFired(clock.currentTimeMillis());
+
+        assertEquals("alert 1", alerts.take(groups.get(0).get(0)));
+        assertEquals(1, alerts.size());
+    }
+
+    @Test
+    public void cancelledEntryLosesItsAlert() {
+        engine.schedule(1, T, record(T));
+        TimelineEntry entry = engine.upcoming(1).get(0);
+
+        engine.cancel(1);
+
+        assertEquals(0, alerts.size());
+        assertNull(alerts.take(entry));
+    }
+
+    @Test
+    public void rescheduledIdIsRebuiltForItsNewContent() {
+        engine.schedule(1, T, record(T));
+        engine.schedule(1, T + 120_000, record(T + 120_000));
+
+        // take() only hands out an alert built for the entry's current content
+        assertEquals("alert 1", alerts.take(engine.upcoming(1).get(0)));
+        assertEquals(0, alerts.size());
+    }
+
+    @Test
+    public void untakenFiredAlertIsDroppedAfterTheRetention() {
+        engine.schedule(1, T, record(T));
+        engine.schedule(2, T + 600_000, record(T + 600_000));
+        clock.advanceTo(T);
+        engine.onAlarmFired(clock.currentTimeMillis());
+        assertEquals(2, alerts.size());
+
+        clock.advanceTo(T + PrebuiltAlerts.FIRED_RETENTION_MS + 1);
+        engine.schedule(3, T + 900_000, record(T + 900_000));
+
+        assertEquals(2, alerts.size());
+        assertNull(alerts.take(new TimelineEntry(1, T, record(T))));
+    }
+
+    private static SignalRecord record(long triggerAtMillis) {
+        return new SignalRecord(1, 2, SignalRecord.DIRECTION_PUT, triggerAtMillis + 15_000);
+    }
+}
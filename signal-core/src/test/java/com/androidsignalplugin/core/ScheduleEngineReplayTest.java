@@ -0,0 +1,282 @@
+package com.androidsignalplugin.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays a full trading day through the schedule engine on a virtual clock:
+ * a pasted list is parsed and planned, then every armed alarm is delivered
+ * when the fake scheduler says it is due.
+ */
+public class ScheduleEngineReplayTest {
+    // 2024-06-12 07:00 in London (BST)
+    private static final long DAY_START = 1718172000000L;
+    private static final long ANTIDELAY_MS = 15_000;
+    private static final long DELIVERY_DELAY_MS = 300;
+    private static final int FIRST_ID = 1000;
+
+    private TimeZone savedZone;
+    private VirtualClock clock;
+    private FakeAlarmScheduler scheduler;
+    private MemoryTimelineStore store;
+    private Settings settings;
+    private final Map<Integer, Long> firedAt = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        savedZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+        SignalTimePlanner.getInstance().invalidate();
+        clock = new VirtualClock(DAY_START);
+        scheduler = new FakeAlarmScheduler();
+        store = new MemoryTimelineStore();
+        settings = new Settings();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(savedZone);
+        SignalTimePlanner.getInstance().invalidate();
+    }
+
+    @Test
+    public void firesEverySignalOfTheDayOnceAndInOrder() {
+        ScheduleEngine engine = newEngine();
+        List<TimelineEntry> planned = plan(dayList());
+        engine.scheduleAll(planned);
+
+        List<List<TimelineEntry>> groups = deliverUntil(engine, Long.MAX_VALUE);
+
+        assertFiredOnce(planned, groups);
+        long previous = 0;
+        for (List<TimelineEntry> group : groups) {
+            long triggerAt = group.get(0).triggerAtMillis;
+            assertTrue("groups fire in trigger order", triggerAt > previous);
+            previous = triggerAt;
+            for (TimelineEntry entry : group) {
+                assertEquals(LateFirePolicy.ON_TIME,
+                    LateFirePolicy.classify(entry.triggerAtMillis, firedAt.get(entry.id), 2000, 60000));
+            }
+        }
+        assertEquals(0, engine.size());
+        assertEquals(0, store.size());
+        assertFalse(scheduler.isArmed(AlarmScheduler.SLOT_TRIGGER));
+    }
+
+    @Test
+    public void coalescesSignalsSharingATrigger() {
+        ScheduleEngine engine = newEngine();
+        engine.scheduleAll(plan("M1;EURUSD;09:30;CALL\nM5;GBPUSD;09:30;PUT\nM1;USDJPY;09:31;CALL\n"));
+
+        List<List<TimelineEntry>> groups = deliverUntil(engine, Long.MAX_VALUE);
+
+        assertEquals(2, groups.size());
+        assertEquals(2, groups.get(0).size());
+        assertEquals(1, groups.get(1).size());
+    }
+
+    @Test
+    public void delayedWakeUpFiresTheBacklogAsSeparateGroups() {
+        ScheduleEngine engine = newEngine();
+        List<TimelineEntry> planned = plan(dayList());
+        engine.scheduleAll(planned);
+
+        // Held in Doze from 08:00 until the 09:00 maintenance window: nine slots pile up
+        long armedAt = scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER);
+        List<List<TimelineEntry>> backlog = deliverAt(engine, armedAt + 3600_000L - 20_000);
+        assertFalse(backlog.isEmpty());
+
+        assertEquals(9, backlog.size());
+        assertEquals(2, backlog.get(0).size());
+        for (List<TimelineEntry> group : backlog.subList(1, backlog.size())) {
+            assertEquals(1, group.size());
+        }
+
+        backlog.addAll(deliverUntil(engine, Long.MAX_VALUE));
+        assertFiredOnce(planned, backlog);
+    }
+
+    @Test
+    public void restoresTheRestOfTheDayAfterProcessDeath() {
+        ScheduleEngine engine = newEngine();
+        List<TimelineEntry> planned = plan(dayList());
+        engine.scheduleAll(planned);
+        List<List<TimelineEntry>> groups = deliverUntil(engine, DAY_START + 6 * 3600_000L);
+        assertTrue(engine.size() > 0);
+
+        // A fresh process only has the store; nothing is armed until it re-arms
+        scheduler = new FakeAlarmScheduler();
+        ScheduleEngine restored = newEngine();
+        assertEquals(engine.size(), restored.size());
+        restored.ensureArmed();
+        groups.addAll(deliverUntil(restored, Long.MAX_VALUE));
+
+        assertFiredOnce(planned, groups);
+    }
+
+    @Test
+    public void nextFreeIdStaysAbovePendingEntries() {
+        ScheduleEngine engine = newEngine();
+        assertEquals(FIRST_ID, engine.nextFreeId(FIRST_ID));
+
+        engine.scheduleAll(plan("M1;EURUSD;09:30;CALL\nM1;GBPUSD;09:45;CALL\n"));
+        assertEquals(FIRST_ID + 2, engine.nextFreeId(FIRST_ID));
+        assertEquals(5000, engine.nextFreeId(5000));
+
+        engine.cancel(FIRST_ID + 1);
+        assertEquals(FIRST_ID + 1, engine.nextFreeId(FIRST_ID));
+    }
+
+    @Test
+    public void armsOnlyBeyondTheOwnersHorizon() {
+        ScheduleEngine engine = newEngine();
+        engine.scheduleAll(plan("M1;EURUSD;07:05;CALL\nM1;GBPUSD;07:08;PUT\nM1;USDJPY;07:30;CALL\n"));
+        long[] ownerNext = {0};
+
+        engine.attachOwner(triggerAtMillis -> ownerNext[0] = triggerAtMillis, 10 * 60_000L);
+
+        TimelineEntry armed = scheduler.armedEntry(AlarmScheduler.SLOT_TRIGGER);
+        assertNotNull(armed);
+        assertEquals(engine.upcoming(3).get(0).triggerAtMillis, ownerNext[0]);
+        assertEquals(engine.upcoming(3).get(2).triggerAtMillis, armed.triggerAtMillis);
+    }
+
+    @Test
+    public void prewarmRidesOnTheTriggerAlarm() {
+        settings.prewarmLeadMs = 5000;
+        ScheduleEngine engine = newEngine();
+        List<TimelineEntry> planned = plan("M1;EURUSD;07:05;CALL\nM1;GBPUSD;07:06;PUT\n");
+        engine.scheduleAll(planned);
+        long triggerAt = planned.get(0).triggerAtMillis;
+        assertEquals(triggerAt - 5000, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER));
+
+        // The early wake-up fires nothing and leaves a fallback at the exact time
+        clock.advanceTo(triggerAt - 5000);
+        int armedBefore = scheduler.getSetCount();
+        assertTrue(engine.onAlarmFired(clock.currentTimeMillis()).isEmpty());
+        assertEquals(triggerAt, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER));
+        assertEquals(armedBefore + 1, scheduler.getSetCount());
+
+        // Fired in-process on time: the fallback is replaced by the next entry's early wake-up
+        clock.advanceTo(triggerAt);
+        assertEquals(1, engine.onAlarmFired(clock.currentTimeMillis()).size());
+        assertEquals(planned.get(1).triggerAtMillis - 5000, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER));
+    }
+
+    @Test
+    public void prewarmedDayStillFiresEverySignal() {
+        settings.prewarmLeadMs = 3000;
+        ScheduleEngine engine = newEngine();
+        List<TimelineEntry> planned = plan(dayList());
+        engine.scheduleAll(planned);
+
+        // Nobody holds on after the early wake-ups, so every entry fires from its fallback
+        assertFiredOnce(planned, deliverUntil(engine, Long.MAX_VALUE));
+    }
+
+    private ScheduleEngine newEngine() {
+        return new ScheduleEngine(clock, scheduler, store, settings);
+    }
+
+    /**
+     * Delivers armed trigger alarms {@link #DELIVERY_DELAY_MS} after their
+     * time until nothing is armed or the next one falls after {@code untilMillis}.
+     */
+    private List<List<TimelineEntry>> deliverUntil(ScheduleEngine engine, long untilMillis) {
+        List<List<TimelineEntry>> groups = new ArrayList<>();
+        while (scheduler.isArmed(AlarmScheduler.SLOT_TRIGGER)
+            && scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER) <= untilMillis) {
+            List<List<TimelineEntry>> fired = deliverAt(engine, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER) + DELIVERY_DELAY_MS);
+            assertTrue("every delivered alarm finds something due", !fired.isEmpty() || settings.prewarmLeadMs > 0);
+            groups.addAll(fired);
+        }
+        return groups;
+    }
+
+    private List<List<TimelineEntry>> deliverAt(ScheduleEngine engine, long timeMillis) {
+        clock.advanceTo(timeMillis);
+        List<List<TimelineEntry>> groups = engine.onAlarmFired(clock.currentTimeMillis());
+        for (List<TimelineEntry> group : groups) {
+            for (TimelineEntry entry : group) {
+                firedAt.put(entry.id, clock.currentTimeMillis());
+            }
+        }
+        return groups;
+    }
+
+    private List<TimelineEntry> plan(String text) {
+        List<TimelineEntry> entries = new ArrayList<>();
+        long now = clock.currentTimeMillis();
+        new SignalListParser(new MapSymbolTable()).parse(text, new SignalListParser.Sink() {
+            @Override
+            public void onSignal(int line, int timeframeId, int assetId, int hours, int minutes, int direction) {
+                long signalAt = SignalTimePlanner.getInstance().nextSignalAt(hours, minutes, now);
+                SignalRecord record = new SignalRecord(assetId, timeframeId, direction, signalAt);
+                entries.add(new TimelineEntry(FIRST_ID + entries.size(), signalAt - ANTIDELAY_MS, record));
+            }
+
+            @Override
+            public void onDuplicate(int line) {
+            }
+
+            @Override
+            public void onError(int line, int reason) {
+            }
+        });
+        return entries;
+    }
+
+    private static String dayList() {
+        String[] assets = {"EURUSD", "GBPUSD", "USDJPY", "AUDCAD"};
+        StringBuilder text = new StringBuilder();
+        // Every 7 minutes from 08:00 to 21:53, with a second signal on every 10th slot
+        for (int i = 0; i < 120; i++) {
+            int minuteOfDay = 8 * 60 + i * 7;
+            String time = String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+            text.append("M1;").append(assets[i % assets.length]).append(';').append(time).append(";CALL\n");
+            if (i % 10 == 0) {
+                text.append("M5;").append(assets[(i + 1) % assets.length]).append(';').append(time).append(";PUT\n");
+            }
+        }
+        return text.toString();
+    }
+
+    private static void assertFiredOnce(List<TimelineEntry> planned, List<List<TimelineEntry>> groups) {
+        Set<Integer> fired = new HashSet<>();
+        for (List<TimelineEntry> group : groups) {
+            for (TimelineEntry entry : group) {
+                assertTrue("fired twice: " + entry.id, fired.add(entry.id));
+            }
+        }
+        assertEquals(planned.size(), fired.size());
+    }
+
+    private static class Settings implements ScheduleSettings {
+        long coalesceWindowMs = 1000;
+        long prewarmLeadMs;
+
+        @Override
+        public long getCoalesceWindowMs() {
+            return coalesceWindowMs;
+        }
+
+        @Override
+        public long getPrewarmLeadMs() {
+            return prewarmLeadMs;
+        }
+    }
+}
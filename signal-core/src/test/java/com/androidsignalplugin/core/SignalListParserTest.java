@@ -0,0 +1,120 @@
+package com.androidsignalplugin.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SignalListParserTest {
+    private final MapSymbolTable symbols = new MapSymbolTable();
+    private final SignalListParser parser = new SignalListParser(symbols);
+
+    @Test
+    public void reportsRepeatedSignalsAsDuplicates() {
+        Recorder recorder = parse("M1;EURUSD;09:30;CALL\nM1;EURUSD;09:30;CALL\n");
+
+        assertEquals(1, recorder.signals.size());
+        assertEquals(1, recorder.duplicateLines.size());
+        assertEquals(2, (int) recorder.duplicateLines.get(0));
+    }
+
+    @Test
+    public void dedupeIgnoresWhitespaceCaseAndDirectionAliases() {
+        Recorder recorder = parse("M1;EURUSD;09:30;CALL\n  M1 ; EURUSD ;09:30; call \nM1;EURUSD;09:30;UP\n");
+
+        assertEquals(1, recorder.signals.size());
+        assertEquals(2, recorder.duplicateLines.size());
+    }
+
+    @Test
+    public void signalsDifferingInAnyFieldAreKept() {
+        Recorder recorder = parse(
+            "M1;EURUSD;09:30;CALL\n"
+                + "M5;EURUSD;09:30;CALL\n"
+                + "M1;GBPUSD;09:30;CALL\n"
+                + "M1;EURUSD;09:31;CALL\n"
+                + "M1;EURUSD;09:30;PUT\n"
+        );
+
+        assertEquals(5, recorder.signals.size());
+        assertEquals(0, recorder.duplicateLines.size());
+    }
+
+    @Test
+    public void dedupeStartsOverOnEachParse() {
+        parse("M1;EURUSD;09:30;CALL\n");
+        Recorder recorder = parse("M1;EURUSD;09:30;CALL\n");
+
+        assertEquals(1, recorder.signals.size());
+        assertEquals(0, recorder.duplicateLines.size());
+    }
+
+    @Test
+    public void largeListsHaveNoFalseDuplicates() {
+        // Every minute of the day twice over grows the seen set several times
+        StringBuilder text = new StringBuilder();
+        for (int pass = 0; pass < 2; pass++) {
+            for (int minuteOfDay = 0; minuteOfDay < 1440; minuteOfDay++) {
+                text.append(String.format("M1;EURUSD;%02d:%02d;CALL\n", minuteOfDay / 60, minuteOfDay % 60));
+            }
+        }
+        Recorder recorder = parse(text);
+
+        assertEquals(1440, recorder.signals.size());
+        assertEquals(1440, recorder.duplicateLines.size());
+        assertEquals(1441, (int) recorder.duplicateLines.get(0));
+    }
+
+    @Test
+    public void reportsMalformedLines() {
+        Recorder recorder = parse("M1;EURUSD;9:30;CALL\nM1;;09:30;CALL\nM1;EURUSD;09:30\n\nM1;EURUSD;24:00;PUT\n");
+
+        assertEquals(0, recorder.signals.size());
+        assertEquals(4, recorder.errors.size());
+        assertEquals(SignalListParser.ERROR_TIME, (int) recorder.errors.get(0)[1]);
+        assertEquals(SignalListParser.ERROR_ASSET, (int) recorder.errors.get(1)[1]);
+        assertEquals(SignalListParser.ERROR_FIELD_COUNT, (int) recorder.errors.get(2)[1]);
+        assertEquals(5, (int) recorder.errors.get(3)[0]);
+    }
+
+    @Test
+    public void internsNamesAndParsesFields() {
+        Recorder recorder = parse("M5;GBPUSD;23:59;sell\n");
+
+        int[] signal = recorder.signals.get(0);
+        assertEquals("M5", symbols.lookup(signal[0]));
+        assertEquals("GBPUSD", symbols.lookup(signal[1]));
+        assertEquals(23, signal[2]);
+        assertEquals(59, signal[3]);
+        assertEquals(SignalRecord.DIRECTION_PUT, signal[4]);
+    }
+
+    private Recorder parse(CharSequence text) {
+        Recorder recorder = new Recorder();
+        parser.parse(text, recorder);
+        return recorder;
+    }
+
+    private static class Recorder implements SignalListParser.Sink {
+        final List<int[]> signals = new ArrayList<>();
+        final List<Integer> duplicateLines = new ArrayList<>();
+        final List<int[]> errors = new ArrayList<>();
+
+        @Override
+        public void onSignal(int line, int timeframeId, int assetId, int hours, int minutes, int direction) {
+            signals.add(new int[] {timeframeId, assetId, hours, minutes, direction});
+        }
+
+        @Override
+        public void onDuplicate(int line) {
+            duplicateLines.add(line);
+        }
+
+        @Override
+        public void onError(int line, int reason) {
+            errors.add(new int[] {line, reason});
+        }
+    }
+}
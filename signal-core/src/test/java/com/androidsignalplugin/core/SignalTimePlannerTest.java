@@ -0,0 +1,114 @@
+package com.androidsignalplugin.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks every minute of ordinary and DST transition days against java.time.
+ */
+public class SignalTimePlannerTest {
+    private final SignalTimePlanner planner = SignalTimePlanner.getInstance();
+    private TimeZone savedZone;
+
+    @Before
+    public void setUp() {
+        savedZone = TimeZone.getDefault();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(savedZone);
+        planner.invalidate();
+    }
+
+    @Test
+    public void ordinaryDay() {
+        assertDayMatches("Europe/London", LocalDate.of(2024, 6, 12));
+        assertDayMatches("Asia/Kolkata", LocalDate.of(2024, 3, 31));
+    }
+
+    @Test
+    public void springForward() {
+        // 01:00 -> 02:00
+        assertDayMatches("Europe/London", LocalDate.of(2024, 3, 31));
+        // 02:00 -> 03:00
+        assertDayMatches("America/New_York", LocalDate.of(2024, 3, 10));
+    }
+
+    @Test
+    public void fallBack() {
+        // 02:00 -> 01:00, the 01:xx hour repeats
+        assertDayMatches("Europe/London", LocalDate.of(2024, 10, 27));
+        assertDayMatches("America/New_York", LocalDate.of(2024, 11, 3));
+    }
+
+    @Test
+    public void transitionAtMidnight() {
+        // Midnight itself is skipped: the day starts at 01:00
+        assertDayMatches("America/Sao_Paulo", LocalDate.of(2018, 11, 4));
+        // Midnight is repeated
+        assertDayMatches("America/Sao_Paulo", LocalDate.of(2019, 2, 17));
+    }
+
+    @Test
+    public void evePlansIntoTheTransitionDay() {
+        ZoneId zone = ZoneId.of("Europe/London");
+        useZone(zone);
+        long now = ZonedDateTime.of(LocalDate.of(2024, 3, 30), LocalTime.of(22, 0), zone).toInstant().toEpochMilli();
+
+        for (int minuteOfDay = 0; minuteOfDay < 1440; minuteOfDay++) {
+            assertEquals("minute " + minuteOfDay, expected(zone, LocalDate.of(2024, 3, 30), minuteOfDay, now),
+                planner.nextSignalAt(minuteOfDay / 60, minuteOfDay % 60, now));
+        }
+    }
+
+    @Test
+    public void pickingUpAZoneChangeNeedsInvalidate() {
+        long now = ZonedDateTime.of(LocalDate.of(2024, 6, 12), LocalTime.of(8, 0), ZoneId.of("UTC"))
+            .toInstant().toEpochMilli();
+        useZone(ZoneId.of("UTC"));
+        long utc = planner.nextSignalAt(12, 0, now);
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Paris"));
+        assertEquals(utc, planner.nextSignalAt(12, 0, now));
+        planner.invalidate();
+        assertEquals(utc - 2 * 3600_000L, planner.nextSignalAt(12, 0, now));
+    }
+
+    private void assertDayMatches(String zoneId, LocalDate date) {
+        ZoneId zone = ZoneId.of(zoneId);
+        useZone(zone);
+        // From the first instant of the day and from mid-afternoon
+        long[] nows = {
+            date.atStartOfDay(zone).toInstant().toEpochMilli(),
+            ZonedDateTime.of(date, LocalTime.of(15, 30), zone).toInstant().toEpochMilli()
+        };
+        for (long now : nows) {
+            for (int minuteOfDay = 0; minuteOfDay < 1440; minuteOfDay++) {
+                assertEquals(zoneId + " " + date + " minute " + minuteOfDay,
+                    expected(zone, date, minuteOfDay, now),
+                    planner.nextSignalAt(minuteOfDay / 60, minuteOfDay % 60, now));
+            }
+        }
+    }
+
+    private void useZone(ZoneId zone) {
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        planner.invalidate();
+    }
+
+    private static long expected(ZoneId zone, LocalDate date, int minuteOfDay, long now) {
+        LocalTime time = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+        long today = ZonedDateTime.of(date, time, zone).toInstant().toEpochMilli();
+        return today > now ? today : ZonedDateTime.of(date.plusDays(1), time, zone).toInstant().toEpochMilli();
+    }
+}
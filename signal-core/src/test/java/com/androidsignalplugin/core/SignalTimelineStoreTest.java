@@ -0,0 +1,146 @@
+package com.androidsignalplugin.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SignalTimelineStoreTest {
+    private static final long T = 1_700_000_000_000L;
+    // op + id + triggerAt + meta + signalAt
+    private static final int PUT_BYTES = 1 + 4 + 8 + 8 + 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaysPutsAndRemoves() throws IOException {
+        SignalTimelineStore store = new SignalTimelineStore(folder.getRoot());
+        store.appendPut(Arrays.asList(entry(1, T), entry(2, T + 1000), entry(3, T + 2000)));
+        store.appendRemove(Collections.singletonList(2));
+
+        List<TimelineEntry> loaded = new SignalTimelineStore(folder.getRoot()).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals(1, loaded.get(0).id);
+        assertEquals(3, loaded.get(1).id);
+        assertEquals(T + 2000, loaded.get(1).triggerAtMillis);
+        assertEquals(entry(3, T + 2000).record.packMeta(), loaded.get(1).record.packMeta());
+    }
+
+    @Test
+    public void tornTailIsDroppedAndLaterAppendsStayReadable() throws IOException {
+        SignalTimelineStore store = new SignalTimelineStore(folder.getRoot());
+        store.appendPut(Arrays.asList(entry(1, T), entry(2, T + 1000)));
+        // Process died halfway through writing the second put
+        truncateBy(PUT_BYTES / 2);
+
+        SignalTimelineStore reopened = new SignalTimelineStore(folder.getRoot());
+        List<TimelineEntry> loaded = reopened.load();
+        assertEquals(1, loaded.size());
+        assertEquals(1, loaded.get(0).id);
+
+        reopened.appendPut(Collections.singletonList(entry(3, T + 2000)));
+        List<TimelineEntry> reloaded = new SignalTimelineStore(folder.getRoot()).load();
+        assertEquals(2, reloaded.size());
+        assertEquals(3, reloaded.get(1).id);
+    }
+
+    @Test
+    public void tornRemoveIsDropped() throws IOException {
+        SignalTimelineStore store = new SignalTimelineStore(folder.getRoot());
+        store.appendPut(Collections.singletonList(entry(1, T)));
+        store.appendRemove(Collections.singletonList(1));
+        truncateBy(2);
+
+        assertEquals(1, new SignalTimelineStore(folder.getRoot()).load().size());
+    }
+
+    @Test
+    public void unknownFormatIsDiscarded() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(logFile(), "rw")) {
+            file.writeInt(0x53474C54);
+            file.writeInt(1);
+            file.writeBytes("[{\"id\":1}]");
+        }
+
+        SignalTimelineStore store = new SignalTimelineStore(folder.getRoot());
+        assertTrue(store.load().isEmpty());
+
+        store.appendPut(Collections.singletonList(entry(1, T)));
+        assertEquals(1, new SignalTimelineStore(folder.getRoot()).load().size());
+    }
+
+    @Test
+    public void compactionKeepsOnlyLiveEntries() throws IOException {
+        SignalTimelineStore store = new SignalTimelineStore(folder.getRoot());
+        for (int id = 0; id < 200; id++) {
+            store.appendPut(Collections.singletonList(entry(id, T + id)));
+            if (id > 0) {
+                store.appendRemove(Collections.singletonList(id - 1));
+            }
+        }
+        long before = logFile().length();
+
+        store.compactIfNeeded(Collections.singletonList(entry(199, T + 199)));
+
+        assertEquals(8 + PUT_BYTES, logFile().length());
+        assertTrue(logFile().length() < before);
+        assertEquals(199, new SignalTimelineStore(folder.getRoot()).load().get(0).id);
+    }
+
+    @Test
+    public void singleSchedulesAndCancelsKeepTheLogBounded() {
+        ScheduleEngine engine = new ScheduleEngine(
+            new VirtualClock(T - 60_000),
+            new FakeAlarmScheduler(),
+            new SignalTimelineStore(folder.getRoot()),
+            new ScheduleSettings() {
+                @Override
+                public long getCoalesceWindowMs() {
+                    return 1000;
+                }
+
+                @Override
+                public long getPrewarmLeadMs() {
+                    return 0;
+                }
+            }
+        );
+        // One alarm at a time, as scheduleAlarm / cancelAlarm do
+        for (int id = 0; id < 1000; id++) {
+            engine.schedule(id, T + id * 1000L, entry(id, T + id * 1000L).record);
+            if (id >= 3) {
+                engine.cancel(id - 3);
+            }
+        }
+
+        // Three live entries: compaction keeps the log within its slack of them
+        assertEquals(3, engine.size());
+        assertTrue(logFile().length() <= 8 + (3 * 2 + 64 + 2) * PUT_BYTES);
+        assertEquals(3, new SignalTimelineStore(folder.getRoot()).load().size());
+    }
+
+    private File logFile() {
+        return new File(folder.getRoot(), "signal_timeline.bin");
+    }
+
+    private void truncateBy(int bytes) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(logFile(), "rw")) {
+            file.setLength(file.length() - bytes);
+        }
+    }
+
+    private static TimelineEntry entry(int id, long triggerAtMillis) {
+        return new TimelineEntry(id, triggerAtMillis, new SignalRecord(id % 7, 2, SignalRecord.DIRECTION_PUT, triggerAtMillis + 15_000));
+    }
+}
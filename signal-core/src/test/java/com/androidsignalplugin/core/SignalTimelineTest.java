@@ -0,0 +1,137 @@
+package com.androidsignalplugin.core;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SignalTimelineTest {
+    private static final long T = 1_700_000_000_000L;
+    private static final SignalRecord RECORD = new SignalRecord(1, 2, SignalRecord.DIRECTION_CALL, T);
+
+    private final SignalTimeline timeline = new SignalTimeline();
+
+    @Test
+    public void nothingDueBeforeTheFirstTrigger() {
+        put(1, T);
+
+        assertTrue(timeline.pollDue(T - 501, 500, 1000).isEmpty());
+        assertEquals(1, timeline.size());
+    }
+
+    @Test
+    public void slackMakesAnAlmostDueEntryDue() {
+        put(1, T);
+
+        assertEquals(1, timeline.pollDue(T - 500, 500, 0).size());
+        assertTrue(timeline.isEmpty());
+    }
+
+    @Test
+    public void coalescesEntriesWithinTheWindowOfTheFirst() {
+        put(3, T + 1000);
+        put(2, T + 400);
+        put(1, T);
+        put(4, T + 1001);
+
+        List<List<TimelineEntry>> groups = timeline.pollDue(T, 0, 1000);
+
+        assertEquals(1, groups.size());
+        List<TimelineEntry> due = groups.get(0);
+        assertEquals(3, due.size());
+        assertEquals(1, due.get(0).id);
+        assertEquals(2, due.get(1).id);
+        assertEquals(3, due.get(2).id);
+        assertSame(timeline.first(), timeline.firstAfter(T + 1000));
+        assertEquals(4, timeline.first().id);
+    }
+
+    @Test
+    public void backlogComesBackAsSeparateGroups() {
+        put(1, T);
+        put(2, T + 400);
+        put(3, T + 60_000);
+        put(4, T + 60_900);
+        put(5, T + 180_000);
+        put(6, T + 600_000);
+
+        // Woken up minutes late, e.g. out of Doze
+        List<List<TimelineEntry>> groups = timeline.pollDue(T + 200_000, 500, 1000);
+
+        assertEquals(3, groups.size());
+        assertEquals(2, groups.get(0).size());
+        assertEquals(3, groups.get(1).get(0).id);
+        assertEquals(4, groups.get(1).get(1).id);
+        assertEquals(5, groups.get(2).get(0).id);
+        assertEquals(6, timeline.first().id);
+    }
+
+    @Test
+    public void windowIsMeasuredFromEachGroupsFirstEntry() {
+        // Each entry is within the window of the previous one, but not of the first
+        put(1, T);
+        put(2, T + 700);
+        put(3, T + 1400);
+        put(4, T + 2100);
+
+        List<List<TimelineEntry>> groups = timeline.pollDue(T + 5000, 0, 1000);
+
+        assertEquals(2, groups.size());
+        assertEquals(2, groups.get(0).size());
+        assertEquals(3, groups.get(1).get(0).id);
+        assertEquals(2, groups.get(1).size());
+    }
+
+    @Test
+    public void polledEntriesAreGoneById() {
+        put(1, T);
+        put(2, T + 60_000);
+
+        timeline.pollDue(T, 0, 0);
+
+        assertNull(timeline.remove(1));
+        assertEquals(2, timeline.remove(2).id);
+    }
+
+    @Test
+    public void reschedulingAnIdReplacesItsEntry() {
+        put(1, T);
+        put(1, T + 60_000);
+
+        assertEquals(1, timeline.size());
+        assertTrue(timeline.pollDue(T, 0, 0).isEmpty());
+        assertEquals(T + 60_000, timeline.first().triggerAtMillis);
+    }
+
+    @Test
+    public void entriesSharingATriggerAllFire() {
+        put(2, T);
+        put(1, T);
+
+        List<TimelineEntry> due = timeline.pollDue(T, 0, 0).get(0);
+
+        assertEquals(2, due.size());
+        assertEquals(1, due.get(0).id);
+    }
+
+    @Test
+    public void upcomingIsInTriggerOrder() {
+        put(1, T + 2);
+        put(2, T);
+        put(3, T + 1);
+
+        List<TimelineEntry> upcoming = timeline.upcoming(2);
+
+        assertEquals(2, upcoming.size());
+        assertEquals(2, upcoming.get(0).id);
+        assertEquals(3, upcoming.get(1).id);
+    }
+
+    private void put(int id, long triggerAtMillis) {
+        timeline.put(new TimelineEntry(id, triggerAtMillis, RECORD));
+    }
+}
@@ -0,0 +1,185 @@
+package com.androidsignalplugin.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays alarm deliveries through the receiver's {@link AlarmDelivery} and
+ * the service's {@link TriggerVerdict}, with the trigger alarm's entry
+ * standing in for its intent extras.
+ */
+public class TriggerPipelineReplayTest {
+    private static final long T = 1_718_200_000_000L;
+    private static final long LATE_TOLERANCE_MS = 2000;
+    private static final long STALE_TOLERANCE_MS = 60_000;
+
+    private VirtualClock clock;
+    private FakeAlarmScheduler scheduler;
+    private MemoryTimelineStore store;
+    private Settings settings;
+    private final List<List<TimelineEntry>> fired = new ArrayList<>();
+    private final List<Long> prewarmed = new ArrayList<>();
+
+    private final AlarmDelivery.Target target = new AlarmDelivery.Target() {
+        @Override
+        public void fire(List<TimelineEntry> group) {
+            fired.add(group);
+        }
+
+        @Override
+        public void prewarm(long triggerAtMillis) {
+            prewarmed.add(triggerAtMillis);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        clock = new VirtualClock(T - 600_000);
+        scheduler = new FakeAlarmScheduler();
+        store = new MemoryTimelineStore();
+        settings = new Settings();
+    }
+
+    @Test
+    public void lateDeliveryIsSoundedButFlaggedLate() {
+        ScheduleEngine engine = newEngine();
+        engine.schedule(1, T, record(T));
+
+        deliverArmedAt(engine, T + 30_000);
+
+        assertEquals(1, fired.size());
+        TriggerVerdict verdict = judge(fired.get(0));
+        assertEquals(1, verdict.live.size());
+        assertEquals(LateFirePolicy.LATE, verdict.getClassification());
+    }
+
+    @Test
+    public void dozeBacklogSuppressesOnlyTheExpiredEntries() {
+        ScheduleEngine engine = newEngine();
+        engine.schedule(1, T, record(T));
+        engine.schedule(2, T + 120_000, record(T + 120_000));
+
+        // Held in Doze well past the first trigger
+        deliverArmedAt(engine, T + 150_000);
+
+        assertEquals(2, fired.size());
+        TriggerVerdict first = judge(fired.get(0));
+        assertEquals(1, first.stale.size());
+        assertTrue(first.live.isEmpty());
+        assertEquals(LateFirePolicy.STALE, first.classificationAt(0));
+        TriggerVerdict second = judge(fired.get(1));
+        assertEquals(1, second.live.size());
+        assertEquals(LateFirePolicy.LATE, second.getClassification());
+    }
+
+    @Test
+    public void repeatOfAnInProcessFireIsDropped() {
+        ScheduleEngine engine = newEngine();
+        engine.schedule(1, T, record(T));
+        engine.schedule(2, T + 60_000, record(T + 60_000));
+        TimelineEntry armed = scheduler.armedEntry(AlarmScheduler.SLOT_TRIGGER);
+
+        // The dense-mode timer fires it on time; AlarmManager's copy still arrives
+        clock.advanceTo(T);
+        assertEquals(1, engine.onAlarmFired(clock.currentTimeMillis()).size());
+        clock.advanceTo(T + 200);
+        AlarmDelivery.deliver(engine, clock.currentTimeMillis(), armed, target);
+
+        assertTrue(fired.isEmpty());
+        assertTrue(prewarmed.isEmpty());
+        assertEquals(T + 60_000, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER));
+    }
+
+    @Test
+    public void lostTimelineFallsBackToTheAlarmsExtras() {
+        ScheduleEngine engine = newEngine();
+        engine.schedule(7, T, record(T));
+        TimelineEntry armed = scheduler.armedEntry(AlarmScheduler.SLOT_TRIGGER);
+
+        // The process died and its timeline file with it; only the alarm survived
+        store = new MemoryTimelineStore();
+        ScheduleEngine restored = newEngine();
+        clock.advanceTo(T + 300);
+        AlarmDelivery.deliver(restored, clock.currentTimeMillis(), armed, target);
+
+        assertEquals(1, fired.size());
+        assertEquals(7, fired.get(0).get(0).id);
+        assertEquals(LateFirePolicy.ON_TIME, judge(fired.get(0)).getClassification());
+    }
+
+    @Test
+    public void earlyWakeUpPrewarmsInsteadOfFiring() {
+        settings.prewarmLeadMs = 5000;
+        ScheduleEngine engine = newEngine();
+        engine.schedule(1, T, record(T));
+        assertEquals(T - 5000, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER));
+
+        deliverArmedAt(engine, T - 5000);
+
+        assertTrue(fired.isEmpty());
+        assertEquals(1, prewarmed.size());
+        assertEquals(T, (long) prewarmed.get(0));
+        // The exact-time fallback is armed in case the service cannot hold on
+        assertEquals(T, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER));
+    }
+
+    @Test
+    public void wallClockJumpPastTriggersReportsThemMissed() {
+        ScheduleEngine engine = newEngine();
+        engine.schedule(1, T, record(T));
+        engine.schedule(2, T + 60_000, record(T + 60_000));
+        engine.schedule(3, T + 600_000, record(T + 600_000));
+        long elapsedBefore = clock.elapsedRealtime();
+
+        // The user sets the clock forward; the RTC alarm is now overdue and goes off at once
+        clock.setWallClock(T + 300_000);
+        AlarmDelivery.deliver(engine, clock.currentTimeMillis(), scheduler.armedEntry(AlarmScheduler.SLOT_TRIGGER), target);
+
+        assertEquals(elapsedBefore, clock.elapsedRealtime());
+        assertEquals(2, fired.size());
+        for (List<TimelineEntry> group : fired) {
+            TriggerVerdict verdict = judge(group);
+            assertTrue(verdict.live.isEmpty());
+            assertEquals(1, verdict.stale.size());
+        }
+        assertEquals(T + 600_000, scheduler.armedAt(AlarmScheduler.SLOT_TRIGGER));
+    }
+
+    private ScheduleEngine newEngine() {
+        return new ScheduleEngine(clock, scheduler, store, settings);
+    }
+
+    private void deliverArmedAt(ScheduleEngine engine, long timeMillis) {
+        TimelineEntry armed = scheduler.armedEntry(AlarmScheduler.SLOT_TRIGGER);
+        clock.advanceTo(timeMillis);
+        AlarmDelivery.deliver(engine, clock.currentTimeMillis(), armed, target);
+    }
+
+    private TriggerVerdict judge(List<TimelineEntry> group) {
+        return new TriggerVerdict(group, clock.currentTimeMillis(), LATE_TOLERANCE_MS, STALE_TOLERANCE_MS);
+    }
+
+    private static SignalRecord record(long triggerAtMillis) {
+        return new SignalRecord(1, 2, SignalRecord.DIRECTION_CALL, triggerAtMillis + 15_000);
+    }
+
+    private static class Settings implements ScheduleSettings {
+        long prewarmLeadMs;
+
+        @Override
+        public long getCoalesceWindowMs() {
+            return 1000;
+        }
+
+        @Override
+        public long getPrewarmLeadMs() {
+            return prewarmLeadMs;
+        }
+    }
+}
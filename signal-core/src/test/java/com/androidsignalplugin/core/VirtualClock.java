@@ -0,0 +1,41 @@
+package com.androidsignalplugin.core;
+
+/**
+ * Clock that only moves when told to. Wall clock jumps leave elapsed
+ * realtime alone, as on a device.
+ */
+public class VirtualClock implements Clock {
+    private long currentTimeMillis;
+    private long elapsedRealtime;
+
+    public VirtualClock(long currentTimeMillis) {
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    @Override
+    public long elapsedRealtime() {
+        return elapsedRealtime;
+    }
+
+    /**
+     * Lets time pass until {@code timeMillis}; never goes backwards.
+     */
+    public void advanceTo(long timeMillis) {
+        if (timeMillis > currentTimeMillis) {
+            elapsedRealtime += timeMillis - currentTimeMillis;
+            currentTimeMillis = timeMillis;
+        }
+    }
+
+    /**
+     * Changes the wall clock only, like the user setting the time.
+     */
+    public void setWallClock(long timeMillis) {
+        currentTimeMillis = timeMillis;
+    }
+}
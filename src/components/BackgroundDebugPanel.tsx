@@ -1,17 +1,40 @@
 
 import React from "react";
+import { nativeAndroidManager } from "@/utils/nativeAndroidManager";
+
+// Most recent flight record events shown
+const FLIGHT_EVENTS_SHOWN = 20;
 
 export const BackgroundDebugPanel = () => {
   const [status, setStatus] = React.useState<any>({});
+  const [native, setNative] = React.useState<any>(null);
 
   React.useEffect(() => {
+    async function updateNative() {
+      if (!nativeAndroidManager.isAndroidNative()) return;
+      const [timing, flightRecord] = await Promise.all([
+        nativeAndroidManager.getNativeTimingStats(),
+        nativeAndroidManager.getNativeFlightRecord()
+      ]);
+      setNative({
+        timing,
+        flightRecord: flightRecord && {
+          ...flightRecord,
+          events: flightRecord.events.slice(-FLIGHT_EVENTS_SHOWN)
+        }
+      });
+    }
     function update() {
       setStatus((window as any).bgServiceDebug || {});
+      updateNative();
     }
     update();
     window.addEventListener("app-foreground", update);
-    setInterval(update, 1500);
-    return () => window.removeEventListener("app-foreground", update);
+    const interval = setInterval(update, 1500);
+    return () => {
+      clearInterval(interval);
+      window.removeEventListener("app-foreground", update);
+    };
   }, []);
 
   return (
@@ -20,6 +43,14 @@ export const BackgroundDebugPanel = () => {
       <pre className="overflow-x-auto whitespace-pre-wrap max-h-32">
         {JSON.stringify(status, null, 2)}
       </pre>
+      {native && (
+        <>
+          <div><b>Native Trigger Timing / Flight Record</b></div>
+          <pre className="overflow-x-auto whitespace-pre-wrap max-h-64">
+            {JSON.stringify(native, null, 2)}
+          </pre>
+        </>
+      )}
     </div>
   );
 };
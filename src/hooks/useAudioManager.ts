@@ -1,5 +1,6 @@
 
 import { useState, useEffect, useRef } from 'react';
+import { nativeAndroidManager } from '@/utils/nativeAndroidManager';
 
 export const useAudioManager = () => {
   const [customRingtone, setCustomRingtone] = useState<string | null>(null);
@@ -28,7 +29,8 @@ export const useAudioManager = () => {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []); // do not include handleRingtoneSelect
 
-  // No background sync! Everything below is foreground only.
+  // No background sync! Everything below is foreground only, except that on
+  // native Android the tone is also handed to the native alert engine.
 
   const handleRingtoneSelect = (event: Event) => {
     const target = event.target as HTMLInputElement;
@@ -43,6 +45,7 @@ export const useAudioManager = () => {
 
       setCustomRingtone(blobUrl);
       setUseDefault(false);
+      nativeAndroidManager.setNativeAlertTone(file);
       console.log('🎵 Audio Manager - After selection - useDefault:', false, 'customRingtone set');
     }
   };
@@ -59,6 +62,7 @@ export const useAudioManager = () => {
     console.log('🎵 Setting to use default sound');
     setUseDefault(true);
     setCustomRingtone(null);
+    nativeAndroidManager.setNativeAlertTone(null);
     console.log('🎵 Audio Manager - After default selection - useDefault:', true, 'customRingtone:', null);
   };
 
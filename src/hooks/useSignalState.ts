@@ -7,6 +7,7 @@ import {
   saveAntidelayToStorage, 
   loadAntidelayFromStorage 
 } from '@/utils/signalStorage';
+import { nativeAndroidManager } from '@/utils/nativeAndroidManager';
 
 export const useSignalState = () => {
   const [signalsText, setSignalsText] = useState('');
@@ -41,6 +42,11 @@ export const useSignalState = () => {
     const signals = parseSignals(signalsText);
     setSavedSignals(signals);
     saveSignalsToStorage(signals);
+
+    // The native engine parses and arms the same list itself
+    if (nativeAndroidManager.isAndroidNative()) {
+      nativeAndroidManager.importNativeSignals(signalsText, antidelaySeconds);
+    }
   };
 
   const updateSignalTriggered = (signal: Signal) => {
@@ -1,17 +1,130 @@
 
-import { registerPlugin } from '@capacitor/core';
+import { registerPlugin, type PluginListenerHandle } from '@capacitor/core';
+
+export interface TimingStageStats {
+  count: number;
+  min: number;
+  mean: number;
+  p50: number;
+  p90: number;
+  p99: number;
+  max: number;
+}
+
+/** Fields common to every native event */
+export interface NativeEventBase {
+  timestamp: number;
+  /** Emitted while the WebView was paused and replayed on resume */
+  buffered?: boolean;
+  /** Older buffered events lost to the ring's capacity */
+  droppedBefore?: number;
+}
+
+export interface SignalTriggeredEvent extends NativeEventBase {
+  scheduledAt: number;
+  firedAt: number;
+  signals: { id: number; asset: string; timeframe: string; direction: string; signalAt: number }[];
+  classification: 'onTime' | 'late';
+  latenessMs: number;
+}
+
+export interface AudioStartedEvent extends NativeEventBase {
+  firstSampleAt: number;
+  scheduledAt?: number;
+  latencyMs?: number;
+}
+
+/** A trigger that ran past the stale tolerance; it was not sounded */
+export interface AlarmMissedEvent extends Omit<SignalTriggeredEvent, 'classification'> {
+  classification: 'stale';
+}
+
+export interface ScheduleChangedEvent extends NativeEventBase {
+  pending: number;
+  nextTriggerAt: number;
+}
+
+export interface NativeEventMap {
+  signalTriggered: SignalTriggeredEvent;
+  audioStarted: AudioStartedEvent;
+  audioStopped: NativeEventBase;
+  alarmMissed: AlarmMissedEvent;
+  scheduleChanged: ScheduleChangedEvent;
+}
+
+export interface FlightRecordEvent {
+  seq: number;
+  time: number;
+  event:
+    | 'alarmArmed'
+    | 'alarmReceived'
+    | 'prewarm'
+    | 'denseFired'
+    | 'serviceTrigger'
+    | 'triggerStale'
+    | 'audioPlay'
+    | 'audioFirstSample'
+    | 'audioStopped';
+  /** First alarm id of the trigger, 0 for audio events */
+  alarmId: number;
+  /** Lateness in ms, or the trigger time for alarmArmed / audioPlay */
+  value: number;
+}
+
+export interface FlightRecord {
+  capacity: number;
+  /** Events written since the ring was created, including overwritten ones */
+  recorded: number;
+  events: FlightRecordEvent[];
+}
 
 export interface AndroidSignalPlugin {
   scheduleAlarm(options: { 
     id: number;
     timestamp: string;
     antidelaySeconds: number;
-    signalData: string;
-  }): Promise<{ success: boolean }>;
+    asset?: string;
+    timeframe?: string;
+    direction?: string;
+    /** @deprecated JSON-encoded signal; prefer asset/timeframe/direction */
+    signalData?: string;
+  }): Promise<{ success: boolean; triggerAt: number }>;
+
+  scheduleAlarms(options: {
+    alarms: {
+      id: number;
+      timestamp: string;
+      antidelaySeconds?: number;
+      asset?: string;
+      timeframe?: string;
+      direction?: string;
+      /** @deprecated JSON-encoded signal; prefer asset/timeframe/direction */
+      signalData?: string;
+    }[];
+    antidelaySeconds: number;
+  }): Promise<{
+    success: boolean;
+    scheduled: number;
+    failed: number;
+    results: { id: number; success: boolean; triggerAt?: number; error?: string }[];
+  }>;
+
+  importSignals(options: {
+    text: string;
+    antidelaySeconds: number;
+    replace?: boolean;
+  }): Promise<{
+    success: boolean;
+    parsed: number;
+    scheduled: number;
+    duplicates: number;
+    errors: { line: number; reason: string }[];
+    signals: { line: number; id: number; triggerAt: number }[];
+  }>;
   
-  cancelAlarm(options: { id: number }): Promise<{ success: boolean }>;
+  cancelAlarm(options: { id: number }): Promise<{ success: boolean; cancelled: number }>;
   
-  cancelAllAlarms(): Promise<{ success: boolean }>;
+  cancelAllAlarms(): Promise<{ success: boolean; cancelled: number }>;
   
   startForegroundService(options: {
     title: string;
@@ -26,8 +139,51 @@ export interface AndroidSignalPlugin {
     duration: number;
   }): Promise<{ success: boolean }>;
   
+  preloadAudio(options: { audioPath: string }): Promise<{ success: boolean }>;
+
+  preloadTones(options: {
+    audioPaths: string[];
+    maxCacheBytes?: number;
+  }): Promise<{
+    success: boolean;
+    loaded: number;
+    cachedTones: number;
+    cachedBytes: number;
+  }>;
+
+  /** Stores a picked tone (base64) as a private file the native engine can decode */
+  saveAlertTone(options: { data: string }): Promise<{ success: boolean; audioPath: string }>;
+
+  configureAlert(options: {
+    audioPath?: string | null;
+    duration?: number;
+    prewarmSeconds?: number;
+    /** Signals triggering within this many ms fire as one alert */
+    coalesceWindowMs?: number;
+    /** Fire triggers this close from the running foreground service's own timer; 0 disables */
+    denseHorizonSeconds?: number;
+    /** Triggers later than this are flagged late (default 2000) */
+    lateToleranceMs?: number;
+    /** Triggers later than this are reported as missed and not sounded (default 60000) */
+    staleToleranceMs?: number;
+  }): Promise<{ success: boolean }>;
+
   stopAudio(): Promise<{ success: boolean }>;
   
+  getTimingStats(options?: { reset?: boolean }): Promise<{
+    receiver: TimingStageStats;
+    /** Fired by the service's own timer: dense mode and pre-warmed triggers */
+    inProcess: TimingStageStats;
+    service: TimingStageStats;
+    firstSample: TimingStageStats;
+    /** Receiver-to-audio wake lock hold time */
+    wakeLock: TimingStageStats & { timeouts: number };
+    triggers: { onTime: number; late: number; stale: number };
+  }>;
+
+  /** Dumps the native flight recorder, oldest event first */
+  getFlightRecord(): Promise<FlightRecord>;
+
   requestBatteryOptimization(): Promise<{ success: boolean }>;
   
   checkPermissions(): Promise<{ 
@@ -35,6 +191,13 @@ export interface AndroidSignalPlugin {
     notifications: boolean;
     batteryOptimization: boolean;
   }>;
+
+  addListener<K extends keyof NativeEventMap>(
+    eventName: K,
+    listenerFunc: (event: NativeEventMap[K]) => void
+  ): Promise<PluginListenerHandle>;
+
+  removeAllListeners(): Promise<void>;
 }
 
 const AndroidSignalPlugin = registerPlugin<AndroidSignalPlugin>('AndroidSignalPlugin');
@@ -1,5 +1,7 @@
 
+import type { PluginListenerHandle } from '@capacitor/core';
 import { Signal } from '@/types/signal';
+import type { SignalTriggeredEvent } from '@/plugins/AndroidSignalPlugin';
 import { loadAntidelayFromStorage, saveSignalsToStorage, loadSignalsFromStorage } from './signalStorage';
 import { globalBackgroundManager } from './globalBackgroundManager';
 import { BackgroundNotificationManager } from './backgroundNotificationManager';
@@ -8,6 +10,7 @@ import { MonitoringMetricsManager } from './monitoringMetrics';
 import { SignalCacheManager } from './signalCacheManager';
 import { SignalTriggerManager } from './signalTriggerManager';
 import { SignalTimingManager } from './signalTimingManager';
+import { nativeAndroidManager } from './nativeAndroidManager';
 
 const AUDIO_ONLY_MODE_KEY = 'audioOnlyMode';
 
@@ -32,6 +35,7 @@ export class BackgroundMonitoringManager {
   private audioOnlyMode: boolean;
   private lastVisibilityState: string = 'visible';
   private missedSignalCheckInterval: NodeJS.Timeout | null = null;
+  private nativeListeners: PluginListenerHandle[] = [];
 
   private metricsManager: MonitoringMetricsManager;
   private cacheManager: SignalCacheManager;
@@ -131,6 +135,7 @@ export class BackgroundMonitoringManager {
 
   cleanup(): void {
     this.stopBackgroundMonitoring();
+    this.stopNativeEventMonitoring();
     this.triggerManager.cleanup();
     this.cacheManager.cleanup();
     
@@ -203,6 +208,46 @@ export class BackgroundMonitoringManager {
     }, 120000);
   }
 
+  /**
+   * Native alarms fire the signals; mark them triggered from the plugin's
+   * events instead of polling the clock. Returns false if the listeners could
+   * not be added, so the caller can fall back to polling.
+   */
+  async startNativeEventMonitoring(): Promise<boolean> {
+    const onFired = (event: Pick<SignalTriggeredEvent, 'signals'>) => this.markNativeSignalsTriggered(event.signals);
+    const triggered = await nativeAndroidManager.addNativeEventListener('signalTriggered', onFired);
+    const missed = await nativeAndroidManager.addNativeEventListener('alarmMissed', onFired);
+    if (!triggered || !missed) {
+      await triggered?.remove();
+      await missed?.remove();
+      return false;
+    }
+
+    this.nativeListeners = [triggered, missed];
+    console.log('🚀 Native event monitoring started for instance:', this.instanceId);
+    return true;
+  }
+
+  stopNativeEventMonitoring(): void {
+    this.nativeListeners.forEach(listener => listener.remove());
+    this.nativeListeners = [];
+  }
+
+  private async markNativeSignalsTriggered(fired: SignalTriggeredEvent['signals']): Promise<void> {
+    const stored = await globalBackgroundManager.withStorageLock(() => loadSignalsFromStorage());
+    let marked = 0;
+    for (const nativeSignal of fired) {
+      const signal = stored.find(s => !s.triggered && nativeAndroidManager.matchesNativeSignal(s, nativeSignal));
+      if (signal) {
+        await this.atomicallyMarkSignalAsTriggered(signal);
+        marked++;
+      }
+    }
+    if (marked > 0) {
+      window.dispatchEvent(new Event('signals-storage-update'));
+    }
+  }
+
   stopBackgroundMonitoring(): void {
     if (this.backgroundCheckInterval) {
       console.log('🚀 Stopping background monitoring for instance:', this.instanceId);
@@ -73,7 +73,11 @@ export class BackgroundServiceCore {
       }
 
       this.monitoringManager.setAudioOnlyMode(this.audioOnlyModeManager.getAudioOnlyMode());
-      this.monitoringManager.startBackgroundMonitoring();
+      const nativeEvents = nativeAndroidManager.isAndroidNative()
+        && await this.monitoringManager.startNativeEventMonitoring();
+      if (!nativeEvents) {
+        this.monitoringManager.startBackgroundMonitoring();
+      }
       this.statusManager.debugBackgroundStatus();
       
       console.log('🚀 Background service initialized successfully');
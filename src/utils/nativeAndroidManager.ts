@@ -1,8 +1,50 @@
 
-import { Capacitor } from '@capacitor/core';
-import AndroidSignalPlugin from '@/plugins/AndroidSignalPlugin';
+import { Capacitor, type PluginListenerHandle } from '@capacitor/core';
+import AndroidSignalPlugin, {
+  FlightRecord,
+  NativeEventMap,
+  SignalTriggeredEvent,
+  TimingStageStats
+} from '@/plugins/AndroidSignalPlugin';
 import { Signal } from '@/types/signal';
 
+const ALERT_TONE_PATH_KEY = 'nativeAlertTonePath';
+
+// Alert behaviour the app runs the native engine with
+const NATIVE_ALERT_SETTINGS = {
+  prewarmSeconds: 5,
+  coalesceWindowMs: 1000,
+  denseHorizonSeconds: 0,
+  lateToleranceMs: 2000,
+  staleToleranceMs: 60000
+};
+
+function blobToBase64(blob: Blob): Promise<string> {
+  return new Promise((resolve, reject) => {
+    const reader = new FileReader();
+    // Data URL minus its "data:<mime>;base64," prefix
+    reader.onload = () => resolve(String(reader.result).split(',')[1] ?? '');
+    reader.onerror = () => reject(reader.error);
+    reader.readAsDataURL(blob);
+  });
+}
+
+// Same mapping as the native SignalRecord.parseDirection
+function nativeDirection(direction: string): string {
+  switch (direction.trim().toUpperCase()) {
+    case 'CALL':
+    case 'UP':
+    case 'BUY':
+      return 'CALL';
+    case 'PUT':
+    case 'DOWN':
+    case 'SELL':
+      return 'PUT';
+    default:
+      return '';
+  }
+}
+
 export class NativeAndroidManager {
   private isNative: boolean;
 
@@ -21,29 +63,20 @@ export class NativeAndroidManager {
       // Cancel existing alarms first
       await AndroidSignalPlugin.cancelAllAlarms();
 
-      // Schedule new alarms
-      const now = new Date();
+      // Schedule new alarms in a single bridge call; native side rolls past times to tomorrow
       let alarmId = 1000;
+      const alarms = signals
+        .filter(signal => !signal.triggered)
+        .map(signal => ({
+          id: alarmId++,
+          timestamp: signal.timestamp,
+          asset: signal.asset,
+          timeframe: signal.timeframe,
+          direction: signal.direction
+        }));
 
-      for (const signal of signals) {
-        if (signal.triggered) continue;
-
-        const [hours, minutes] = signal.timestamp.split(':').map(Number);
-        const signalTime = new Date();
-        signalTime.setHours(hours, minutes, 0, 0);
-
-        // Check if signal time is in the future
-        const targetTime = new Date(signalTime.getTime() - (antidelaySeconds * 1000));
-        if (targetTime > now) {
-          await AndroidSignalPlugin.scheduleAlarm({
-            id: alarmId++,
-            timestamp: signal.timestamp,
-            antidelaySeconds,
-            signalData: JSON.stringify(signal)
-          });
-          console.log('🤖 Native alarm scheduled for:', signal.timestamp);
-        }
-      }
+      const result = await AndroidSignalPlugin.scheduleAlarms({ alarms, antidelaySeconds });
+      console.log('🤖 Native alarms scheduled:', result.scheduled, 'failed:', result.failed);
 
       return true;
     } catch (error) {
@@ -52,12 +85,41 @@ export class NativeAndroidManager {
     }
   }
 
+  /**
+   * Whether a stored signal is the one a native event reports. Native events
+   * carry trimmed names, a normalized direction and the signal's epoch time,
+   * so this holds across restarts whoever scheduled the alarm.
+   */
+  matchesNativeSignal(signal: Signal, fired: SignalTriggeredEvent['signals'][number]): boolean {
+    const at = new Date(fired.signalAt);
+    const timestamp = `${String(at.getHours()).padStart(2, '0')}:${String(at.getMinutes()).padStart(2, '0')}`;
+    return signal.timestamp === timestamp
+      && signal.asset.trim() === fired.asset
+      && signal.timeframe.trim() === fired.timeframe
+      && nativeDirection(signal.direction) === fired.direction;
+  }
+
+  async importNativeSignals(text: string, antidelaySeconds: number): Promise<boolean> {
+    if (!this.isNative) return false;
+
+    try {
+      // Parsing, de-duplication and scheduling all happen natively
+      const result = await AndroidSignalPlugin.importSignals({ text, antidelaySeconds });
+      console.log('🤖 Native signals imported:', result.scheduled, 'duplicates:', result.duplicates,
+        'errors:', result.errors.length);
+      return true;
+    } catch (error) {
+      console.error('🤖 Failed to import native signals:', error);
+      return false;
+    }
+  }
+
   async cancelNativeAlarms(): Promise<boolean> {
     if (!this.isNative) return false;
 
     try {
-      await AndroidSignalPlugin.cancelAllAlarms();
-      console.log('🤖 All native alarms cancelled');
+      const { cancelled } = await AndroidSignalPlugin.cancelAllAlarms();
+      console.log('🤖 Native alarms cancelled:', cancelled);
       return true;
     } catch (error) {
       console.error('🤖 Failed to cancel native alarms:', error);
@@ -111,6 +173,94 @@ export class NativeAndroidManager {
     }
   }
 
+  async preloadNativeAudio(audioPath: string): Promise<boolean> {
+    if (!this.isNative) return false;
+
+    try {
+      await AndroidSignalPlugin.preloadAudio({ audioPath });
+      console.log('🤖 Native audio preloaded:', audioPath);
+      return true;
+    } catch (error) {
+      console.error('🤖 Failed to preload native audio:', error);
+      return false;
+    }
+  }
+
+  async preloadNativeTones(audioPaths: string[], maxCacheBytes?: number): Promise<boolean> {
+    if (!this.isNative) return false;
+
+    try {
+      const result = await AndroidSignalPlugin.preloadTones({ audioPaths, maxCacheBytes });
+      console.log('🤖 Native tones preloaded:', result.loaded, 'cached bytes:', result.cachedBytes);
+      return result.success;
+    } catch (error) {
+      console.error('🤖 Failed to preload native tones:', error);
+      return false;
+    }
+  }
+
+  async configureNativeAlert(options: {
+    audioPath?: string | null;
+    duration?: number;
+    prewarmSeconds?: number;
+    /** Signals triggering within this many ms fire as one alert */
+    coalesceWindowMs?: number;
+    /** Fire triggers this close from the running foreground service's own timer; 0 disables */
+    denseHorizonSeconds?: number;
+    /** Triggers later than this are flagged late (default 2000) */
+    lateToleranceMs?: number;
+    /** Triggers later than this are reported as missed and not sounded (default 60000) */
+    staleToleranceMs?: number;
+  }): Promise<boolean> {
+    if (!this.isNative) return false;
+
+    try {
+      await AndroidSignalPlugin.configureAlert(options);
+      console.log('🤖 Native alert configured:', options);
+      return true;
+    } catch (error) {
+      console.error('🤖 Failed to configure native alert:', error);
+      return false;
+    }
+  }
+
+  /**
+   * Applies the app's alert settings and decodes the saved tone ahead of the
+   * first trigger after a cold start.
+   */
+  async initializeNativeAlert(): Promise<void> {
+    if (!this.isNative) return;
+
+    await this.configureNativeAlert(NATIVE_ALERT_SETTINGS);
+    const tonePath = localStorage.getItem(ALERT_TONE_PATH_KEY);
+    if (tonePath) {
+      await this.preloadNativeTones([tonePath]);
+    }
+  }
+
+  /** Hands the picked ringtone to the native engine; null goes back to the default beep */
+  async setNativeAlertTone(tone: Blob | null): Promise<boolean> {
+    if (!this.isNative) return false;
+
+    try {
+      if (!tone) {
+        await AndroidSignalPlugin.configureAlert({ audioPath: null });
+        localStorage.removeItem(ALERT_TONE_PATH_KEY);
+        console.log('🤖 Native alert tone reset to default');
+        return true;
+      }
+
+      const { audioPath } = await AndroidSignalPlugin.saveAlertTone({ data: await blobToBase64(tone) });
+      await AndroidSignalPlugin.configureAlert({ audioPath });
+      localStorage.setItem(ALERT_TONE_PATH_KEY, audioPath);
+      console.log('🤖 Native alert tone set:', audioPath);
+      return await this.preloadNativeAudio(audioPath);
+    } catch (error) {
+      console.error('🤖 Failed to set native alert tone:', error);
+      return false;
+    }
+  }
+
   async stopNativeAudio(): Promise<boolean> {
     if (!this.isNative) return false;
 
@@ -124,6 +274,56 @@ export class NativeAndroidManager {
     }
   }
 
+  async getNativeTimingStats(reset = false): Promise<{
+    receiver: TimingStageStats;
+    /** Fired by the service's own timer: dense mode and pre-warmed triggers */
+    inProcess: TimingStageStats;
+    service: TimingStageStats;
+    firstSample: TimingStageStats;
+    /** Receiver-to-audio wake lock hold time */
+    wakeLock: TimingStageStats & { timeouts: number };
+    triggers: { onTime: number; late: number; stale: number };
+  } | null> {
+    if (!this.isNative) return null;
+
+    try {
+      return await AndroidSignalPlugin.getTimingStats({ reset });
+    } catch (error) {
+      console.error('🤖 Failed to get timing stats:', error);
+      return null;
+    }
+  }
+
+  async getNativeFlightRecord(): Promise<FlightRecord | null> {
+    if (!this.isNative) return null;
+
+    try {
+      return await AndroidSignalPlugin.getFlightRecord();
+    } catch (error) {
+      console.error('🤖 Failed to get flight record:', error);
+      return null;
+    }
+  }
+
+  /**
+   * Subscribes to a native event (signalTriggered, audioStarted, audioStopped,
+   * alarmMissed, scheduleChanged). Events raised while the app was in the
+   * background are delivered on resume with `buffered: true`.
+   */
+  async addNativeEventListener<K extends keyof NativeEventMap>(
+    eventName: K,
+    listener: (event: NativeEventMap[K]) => void
+  ): Promise<PluginListenerHandle | null> {
+    if (!this.isNative) return null;
+
+    try {
+      return await AndroidSignalPlugin.addListener(eventName, listener);
+    } catch (error) {
+      console.error('🤖 Failed to add native event listener:', error);
+      return null;
+    }
+  }
+
   async requestBatteryOptimization(): Promise<boolean> {
     if (!this.isNative) return false;
 
@@ -27,6 +27,7 @@ export class PlatformInitializer {
     
     await nativeAndroidManager.requestBatteryOptimization();
     await nativeAndroidManager.startForegroundService();
+    await nativeAndroidManager.initializeNativeAlert();
     
     const permissions = await nativeAndroidManager.checkNativePermissions();
     if (permissions) {